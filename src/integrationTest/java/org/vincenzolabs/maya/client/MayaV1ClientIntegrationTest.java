@@ -29,7 +29,7 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.vincenzolabs.maya.config.MayaProperties;
 import org.vincenzolabs.maya.dto.Amount;
 import org.vincenzolabs.maya.dto.CheckoutGETResponse;
 import org.vincenzolabs.maya.dto.CheckoutPOSTResponse;
@@ -80,7 +80,7 @@ import static org.assertj.core.api.Assertions.assertThatNoException;
 @Tag("integration")
 class MayaV1ClientIntegrationTest {
 
-    private static final MayaV1Client client = new MayaV1Client();
+    private static MayaV1Client merchants;
 
     private static UUID checkoutId;
 
@@ -90,15 +90,16 @@ class MayaV1ClientIntegrationTest {
 
     @BeforeAll
     static void setUp() {
-        ReflectionTestUtils.setField(client, "paymentGatewayUrl", "https://pg-sandbox.paymaya.com");
-        ReflectionTestUtils.setField(client, "activeProfile", "test");
+        MayaProperties properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("https://pg-sandbox.paymaya.com");
+        merchants = new MayaV1Client(properties, null, "test");
     }
 
     @Test
     @DisplayName("Verify that a checkout payment is created")
     @Order(1)
     void createCheckoutPayment() {
-        ReflectionTestUtils.setField(client, "publicKey", "pk-lNAUk1jk7VPnf7koOT1uoGJoZJjmAxrbjpj6urB8EIA");
+        MayaV1Client client = merchants.forMerchant("pk-lNAUk1jk7VPnf7koOT1uoGJoZJjmAxrbjpj6urB8EIA", null);
 
         CheckoutRequest request = CheckoutRequest.builder()
                 .totalAmount(Amount.builder()
@@ -179,7 +180,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a checkout payment is retrieved")
     @Order(2)
     void retrieveCheckoutPayment() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         CheckoutGETResponse response = client.retrieveCheckoutPayment(checkoutId.toString()).block();
 
@@ -237,7 +238,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a single payment for a facilitator merchant is created")
     @Order(3)
     void createSinglePaymentForFacilitatorMerchant() {
-        ReflectionTestUtils.setField(client, "publicKey", "pk-rpwb5YR6EfnKiMsldZqY4hgpvJjuy8hhxW2bVAAiz2N");
+        MayaV1Client client = merchants.forMerchant("pk-rpwb5YR6EfnKiMsldZqY4hgpvJjuy8hhxW2bVAAiz2N", null);
 
         PaymentRequest request = PaymentRequest.builder()
                 .totalAmount(Amount.builder()
@@ -276,7 +277,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a single payment for a non-facilitator merchant is created")
     @Order(4)
     void createSinglePaymentForNonFacilitatorMerchant() {
-        ReflectionTestUtils.setField(client, "publicKey", "pk-MOfNKu3FmHMVHtjyjG7vhr7vFevRkWxmxYL1Yq6iFk5");
+        MayaV1Client client = merchants.forMerchant("pk-MOfNKu3FmHMVHtjyjG7vhr7vFevRkWxmxYL1Yq6iFk5", null);
 
         PaymentRequest request = PaymentRequest.builder()
                 .totalAmount(Amount.builder()
@@ -304,7 +305,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payment is retrieved by payment ID")
     @Order(5)
     void retrievePaymentByPaymentId() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         PaymentResponse response = client.retrievePaymentByPaymentId(paymentId.toString()).block();
 
@@ -326,7 +327,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payments are retrieved by request reference number")
     @Order(6)
     void retrievePaymentsByRequestReferenceNumber() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         List<PaymentResponse> responses = client.retrievePaymentsByRequestReferenceNumber("1551191039")
                 .collectList()
@@ -340,7 +341,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a wallet link is created")
     @Order(7)
     void createWalletLink() {
-        ReflectionTestUtils.setField(client, "publicKey", "pk-MOfNKu3FmHMVHtjyjG7vhr7vFevRkWxmxYL1Yq6iFk5");
+        MayaV1Client client = merchants.forMerchant("pk-MOfNKu3FmHMVHtjyjG7vhr7vFevRkWxmxYL1Yq6iFk5", null);
 
         PaymentRequest request = PaymentRequest.builder()
                 .redirectUrl(RedirectUrl.builder()
@@ -365,7 +366,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a recurring payment is executed")
     @Order(8)
     void createRecurringPayment() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         PaymentRequest request = PaymentRequest.builder()
                 .totalAmount(Amount.builder()
@@ -416,7 +417,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a wallet link is retrieved")
     @Order(9)
     void retrieveWalletLink() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         // TODO replace link ID
         String linkId = "17066dd2-1886-49b5-bfd2-0081c88c6e52";
@@ -436,7 +437,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that a wallet link is deactivated")
     @Order(10)
     void deactivateWalletLink() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         // TODO replace link ID
         String linkId = "17066dd2-1886-49b5-bfd2-0081c88c6e52";
@@ -456,7 +457,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that a successful payment is voided")
     void voidPaymentByPaymentId() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         VoidRequest request = VoidRequest.builder()
                 .reason("Incorrect item ordered.")
@@ -483,7 +484,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that a successful payment is voided by request reference number")
     void voidPaymentByRequestReferenceNumber() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         VoidRequest request = VoidRequest.builder()
                 .reason("Incorrect item ordered.")
@@ -510,7 +511,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that voids are retrieved")
     void retrieveVoids() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         String paymentId = "25505b70-540c-4d5f-9e9c-385bdc0cf496";
         List<VoidResponse> responses = client.retrieveVoids(paymentId).collectList().block();
@@ -530,7 +531,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that a void is retrieved")
     void retrieveVoid() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         String paymentId = "25505b70-540c-4d5f-9e9c-385bdc0cf496";
         String voidId = "6863b172-b377-4c76-b925-078d7e71b47b";
@@ -550,7 +551,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that a successful payment is refunded")
     void refundPaymentByPaymentId() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         RefundRequest request = RefundRequest.builder()
                 .totalAmount(Amount.builder()
@@ -583,7 +584,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that a successful payment is refunded by request reference number")
     void refundPaymentByRequestReferenceNumber() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         RefundRequest request = RefundRequest.builder()
                 .totalAmount(Amount.builder()
@@ -617,7 +618,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that refunds are retrieved")
     void retrieveRefunds() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         String paymentId = "b51c2b5b-d9e8-4e26-a201-be530858397f";
         List<RefundResponse> responses = client.retrieveRefunds(paymentId).collectList().block();
@@ -639,7 +640,7 @@ class MayaV1ClientIntegrationTest {
     @Test
     @DisplayName("Verify that a refund is retrieved")
     void retrieveRefund() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
+        MayaV1Client client = merchants.forMerchant(null, "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe");
 
         String paymentId = "b51c2b5b-d9e8-4e26-a201-be530858397f";
         String refundId = "32e68013-e143-4303-ad8b-0243dcf68a47";
@@ -661,7 +662,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that checkout webhook is created")
     @Order(11)
     void createCheckoutWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
+        MayaV1Client client = merchants.forMerchant(null, "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
 
         WebhookRequest request = WebhookRequest.builder()
                 .name(WebhookName.RECURRING_PAYMENT_SUCCESS)
@@ -686,7 +687,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that checkout webhooks are retrieved")
     @Order(12)
     void retrieveCheckoutWebhooks() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
+        MayaV1Client client = merchants.forMerchant(null, "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
 
         List<WebhookResponse> responses = client.retrieveCheckoutWebhooks().collectList().block();
 
@@ -699,7 +700,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that checkout webhook is updated")
     @Order(13)
     void updateCheckoutWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
+        MayaV1Client client = merchants.forMerchant(null, "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
 
         WebhookRequest request = WebhookRequest.builder()
                 .name(WebhookName.RECURRING_PAYMENT_SUCCESS)
@@ -719,7 +720,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that checkout webhook is deleted")
     @Order(14)
     void deleteCheckoutWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
+        MayaV1Client client = merchants.forMerchant(null, "sk-VGDKY3P90NYZZ0kSWqBFaD1NTIXQCxtdS7SbQXvcA4g");
 
         WebhookResponse response = client.deleteCheckoutWebhook(webhookId.toString()).block();
 
@@ -734,7 +735,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payment webhook is created")
     @Order(16)
     void createPaymentWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         WebhookRequest request = WebhookRequest.builder()
                 .name(WebhookName.PAYMENT_EXPIRED)
@@ -759,7 +760,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payment webhooks are retrieved")
     @Order(15)
     void retrievePaymentWebhooks() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         List<WebhookResponse> responses = client.retrievePaymentWebhooks().collectList().block();
 
@@ -777,7 +778,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payment webhook is retrieved")
     @Order(17)
     void retrievePaymentWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         WebhookResponse response = client.retrievePaymentWebhook(webhookId.toString()).block();
 
@@ -796,7 +797,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payment webhook is updated")
     @Order(18)
     void updatePaymentWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         WebhookRequest request = WebhookRequest.builder()
                 .name(WebhookName.PAYMENT_EXPIRED)
@@ -816,7 +817,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that payment webhook is deleted")
     @Order(19)
     void deletePaymentWebhook() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         WebhookResponse response = client.deletePaymentWebhook(webhookId.toString()).block();
 
@@ -831,7 +832,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that UI settings are customized")
     @Order(20)
     void customize() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         CustomizationRequest request = CustomizationRequest.builder()
                 .logoUrl("https://cdn3.iconfinder.com/data/icons/diagram_v2/PNG/96x96/diagram_v2-12.png")
@@ -862,7 +863,7 @@ class MayaV1ClientIntegrationTest {
     @DisplayName("Verify that removal of customizations does not throw an exception")
     @Order(21)
     void removeCustomizations() {
-        ReflectionTestUtils.setField(client, "secretKey", "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
+        MayaV1Client client = merchants.forMerchant(null, "sk-fzukI3GXrzNIUyvXY3n16cji8VTJITfzylz5o5QzZMC");
 
         assertThatNoException().isThrownBy(() -> client.removeCustomizations().block());
     }
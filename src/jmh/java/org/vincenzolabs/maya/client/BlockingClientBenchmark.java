@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.vincenzolabs.maya.config.MayaAutoConfiguration;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of 10,000 concurrent blocking payment lookups on a fixed pool of 200 platform threads,
+ * i.e. the default of a servlet container calling {@code .block()}, and on
+ * {@link MayaV1BlockingClient#newTaskExecutor(int)}, against a local stub that simulates the gateway processing time.
+ * Run on Java 21 or later to use virtual threads.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class BlockingClientBenchmark {
+
+    private static final int REQUESTS = 10_000;
+
+    @Param({"platform-pool", "task-executor"})
+    private String executorType;
+
+    private DisposableServer server;
+
+    private ConfigurableApplicationContext context;
+
+    private MayaV1BlockingClient client;
+
+    private ExecutorService executor;
+
+    private List<Callable<PaymentResponse>> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String paymentId = UUID.randomUUID().toString();
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"id\":\"" + request.param("paymentId")
+                                                + "\",\"status\":\"PAYMENT_SUCCESS\"}")
+                                        .delayElement(Duration.ofMillis(50)))))
+                .bindNow();
+
+        context = new SpringApplicationBuilder(MayaAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("maya.payment.gateway.url=http://localhost:" + server.port(),
+                        "maya.connection.pool.max-connections=1000",
+                        "maya.connection.pool.pending-acquire-max-count=-1")
+                .run();
+        client = context.getBean(MayaV1BlockingClient.class);
+        executor = "platform-pool".equals(executorType)
+                ? Executors.newFixedThreadPool(200) : MayaV1BlockingClient.newTaskExecutor(200);
+        tasks = Collections.nCopies(REQUESTS, () -> client.retrievePaymentByPaymentId(paymentId));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int retrievePaymentByPaymentId() throws InterruptedException {
+        return executor.invokeAll(tasks).size();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.vincenzolabs.maya.config.MayaAutoConfiguration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of concurrent payment lookups over HTTP/1.1 and HTTP/2 when the number of pooled
+ * connections is capped, against a local stub that simulates the gateway processing time.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HttpProtocolBenchmark {
+
+    private static final int CONCURRENCY = 64;
+
+    @Param({"H1", "H2"})
+    private String protocol;
+
+    @Param({"4"})
+    private int maxConnections;
+
+    private DisposableServer server;
+
+    private ConfigurableApplicationContext context;
+
+    private MayaV1Client client;
+
+    private String paymentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        paymentId = UUID.randomUUID().toString();
+        server = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"id\":\"" + request.param("paymentId")
+                                                + "\",\"status\":\"PAYMENT_SUCCESS\"}")
+                                        .delayElement(Duration.ofMillis(5)))))
+                .bindNow();
+
+        context = new SpringApplicationBuilder(MayaAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("maya.payment.gateway.url=http://localhost:" + server.port(),
+                        "maya.connection.pool.max-connections=" + maxConnections,
+                        "maya.http.protocol=" + protocol)
+                .run();
+        client = context.getBean(MayaV1Client.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public Long retrievePaymentByPaymentId() {
+        return Flux.range(0, CONCURRENCY)
+                .flatMap(i -> client.retrievePaymentByPaymentId(paymentId), CONCURRENCY)
+                .count()
+                .block();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.vincenzolabs.maya.dto.CheckoutGETResponse;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the decoding of the {@link CheckoutGETResponse} and {@link PaymentResponse} of a successful card payment by
+ * the default {@link Jackson2JsonDecoder} of {@code WebClient} against the one of {@link JsonCodecs}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    private static final String PAYMENT = """
+            {"id":"b6b4a3d4-9fdb-4a0b-9a4e-7c4d1c3c6b55","isPaid":true,"status":"PAYMENT_SUCCESS",\
+            "amount":100.00,"currency":"PHP","canVoid":true,"canRefund":false,"canCapture":false,\
+            "createdAt":"2023-03-21T02:13:51.000Z","updatedAt":"2023-03-21T02:14:32.000Z",\
+            "description":"Charge for 6319921","paymentTokenId":"3mYyG3IxIvFCmHIPgjXlPtnL9YvI",\
+            "fundSource":{"type":"card","id":"3mYyG3IxIvFCmHIPgjXlPtnL9YvI","description":"**** **** **** 2346",\
+            "details":{"scheme":"master-card","last4":"2346","first6":"512345","masked":"512345******2346",\
+            "issuer":"Others"}},"receiptNumber":"d4b3e1a1a7a4","requestReferenceNumber":"6319921",\
+            "metadata":{"pf":{"smi":"smi","smn":"Maya","mci":"Mandaluyong","mpc":"608","mco":"PHL"}},\
+            "approvalCode":"00001234","receipt":{"transactionId":"2d9b4cb0-2a8c-4b53-9f4c-6d6b6e0a3d5f",\
+            "receiptNo":"d4b3e1a1a7a4","approval_code":"00001234","approvalCode":"00001234"}}""";
+
+    private static final String CHECKOUT = """
+            {"id":"b6b4a3d4-9fdb-4a0b-9a4e-7c4d1c3c6b55","items":[{"name":"Canvas Slip Ons","quantity":1,\
+            "code":"CVG-096732","description":"Shoes","amount":{"value":100},"totalAmount":{"value":100}}],\
+            "requestReferenceNumber":"6319921","receiptNumber":"d4b3e1a1a7a4",\
+            "createdAt":"2023-03-21T02:13:51.000Z","updatedAt":"2023-03-21T02:14:32.000Z",\
+            "expiredAt":"2023-03-21T03:13:51.000Z","paymentScheme":"master-card","expressCheckout":true,\
+            "refundedAmount":0,"canPayPal":false,"status":"COMPLETED","paymentStatus":"PAYMENT_SUCCESS",\
+            "paymentDetails":{"responses":{"efs":{"paymentTransactionReferenceNo":"d4b3e1a1a7a4",\
+            "status":"SUCCESS","receipt":{"transactionId":"2d9b4cb0","approval_code":"00001234"}},\
+            "data":{"efs":{"financialNetworkCode":"MCC","acquirerResponseCode":"00",\
+            "transactionNumber":"123456","cardType":"CREDIT","riskScore":0.5,"batchNumber":"1"}}},\
+            "paymentAt":"2023-03-21T02:14:32.000Z","3ds":false},\
+            "buyer":{"firstName":"John","middleName":"Paul","lastName":"Doe","birthday":"1995-10-24",\
+            "customerSince":"1995-10-24","sex":"M","contact":{"phone":"+639181008888",\
+            "email":"merchant@merchantsite.com"},"shippingAddress":{"firstName":"John","lastName":"Doe",\
+            "line1":"6F Launchpad","line2":"Reliance Street","city":"Mandaluyong City",\
+            "state":"Metro Manila","zipCode":"1552","countryCode":"PH","shippingType":"ST"},\
+            "billingAddress":{"line1":"6F Launchpad","line2":"Reliance Street","city":"Mandaluyong City",\
+            "state":"Metro Manila","zipCode":"1552","countryCode":"PH"}},\
+            "merchant":{"currency":"PHP","email":"merchant@merchantsite.com","locale":"en",\
+            "homepageUrl":"https://www.merchantsite.com","isEmailToMerchantEnabled":false,\
+            "isEmailToBuyerEnabled":false,"isPaymentFacilitator":false,"isPageCustomized":true,\
+            "supportedSchemes":["Mastercard","Visa","JCB"],"canPayPal":false,"payPalEmail":null,\
+            "payPalWebExperienceId":null,"expressCheckout":true,"name":"Maya"},\
+            "totalAmount":{"value":100,"currency":"PHP","details":{"discount":0,"serviceCharge":0,\
+            "shippingFee":0,"tax":0,"subtotal":100}},"redirectUrl":{"success":"https://shop/success",\
+            "failure":"https://shop/failure","cancel":"https://shop/cancel"},\
+            "transactionReferenceNumber":"2d9b4cb0-2a8c-4b53-9f4c-6d6b6e0a3d5f",\
+            "metadata":{"pf":{"smi":"smi","smn":"Maya"}}}""";
+
+    private static final ResolvableType PAYMENT_TYPE = ResolvableType.forClass(PaymentResponse.class);
+
+    private static final ResolvableType CHECKOUT_TYPE = ResolvableType.forClass(CheckoutGETResponse.class);
+
+    private final byte[] payment = PAYMENT.getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] checkout = CHECKOUT.getBytes(StandardCharsets.UTF_8);
+
+    @Param({"default", "sdk"})
+    private String codec;
+
+    private Jackson2JsonDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        decoder = "default".equals(codec)
+                ? new Jackson2JsonDecoder() : JsonCodecs.createDecoder(JsonCodecs.createObjectMapper(), 256 * 1024);
+    }
+
+    @Benchmark
+    public Object decodePayment() {
+        return decode(payment, PAYMENT_TYPE);
+    }
+
+    @Benchmark
+    public Object decodeCheckout() {
+        return decode(checkout, CHECKOUT_TYPE);
+    }
+
+    private Object decode(byte[] bytes, ResolvableType type) {
+        return decoder.decodeToMono(Mono.just(DefaultDataBufferFactory.sharedInstance.wrap(bytes)), type,
+                        MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .block();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.vincenzolabs.maya.dto.Amount;
+import org.vincenzolabs.maya.dto.CheckoutRequest;
+import org.vincenzolabs.maya.dto.Customer;
+import org.vincenzolabs.maya.dto.Item;
+import org.vincenzolabs.maya.dto.RedirectUrl;
+import org.vincenzolabs.maya.enumeration.Currency;
+import org.vincenzolabs.maya.enumeration.Sex;
+import org.vincenzolabs.maya.enumeration.ShippingType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encoding of a {@link CheckoutRequest} of 50 {@link Item}s into the pooled buffers of Reactor Netty by
+ * the default {@link Jackson2JsonEncoder} of {@code WebClient}, which copies an intermediate byte array, against the
+ * one of {@link JsonCodecs}. Run with {@code -prof gc} to compare the allocations per request.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEncodeBenchmark {
+
+    private static final ResolvableType CHECKOUT_REQUEST_TYPE = ResolvableType.forClass(CheckoutRequest.class);
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Param({"default", "sdk"})
+    private String codec;
+
+    private Jackson2JsonEncoder encoder;
+
+    private CheckoutRequest request;
+
+    @Setup
+    public void setUp() {
+        encoder = "default".equals(codec)
+                ? new Jackson2JsonEncoder() : JsonCodecs.createEncoder(JsonCodecs.createObjectMapper());
+
+        Set<Item> items = new LinkedHashSet<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(Item.builder()
+                    .name("Canvas Slip Ons " + i)
+                    .quantity(1)
+                    .code("CVG-" + i)
+                    .description("Shoes")
+                    .amount(Amount.builder()
+                            .value(BigDecimal.valueOf(100))
+                            .build())
+                    .totalAmount(Amount.builder()
+                            .value(BigDecimal.valueOf(100))
+                            .build())
+                    .build());
+        }
+        Customer.ShippingAddress shippingAddress = Customer.ShippingAddress.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .phone("+639181008888")
+                .email("merchant@merchantsite.com")
+                .line1("6F Launchpad")
+                .line2("Reliance Street")
+                .city("Mandaluyong City")
+                .state("Metro Manila")
+                .zipCode("1552")
+                .countryCode("PH")
+                .shippingType(ShippingType.ST)
+                .build();
+        request = CheckoutRequest.builder()
+                .totalAmount(Amount.builder()
+                        .value(BigDecimal.valueOf(5000))
+                        .currency(Currency.PHP)
+                        .details(Amount.Details.builder()
+                                .subtotal(BigDecimal.valueOf(5000))
+                                .build())
+                        .build())
+                .buyer(Customer.builder()
+                        .firstName("John")
+                        .middleName("Paul")
+                        .lastName("Doe")
+                        .birthday(LocalDate.of(1995, 10, 24))
+                        .customerSince(LocalDate.of(1995, 10, 24))
+                        .sex(Sex.M)
+                        .contact(Customer.Contact.builder()
+                                .phone("+639181008888")
+                                .email("merchant@merchantsite.com")
+                                .build())
+                        .shippingAddress(shippingAddress)
+                        .billingAddress(Customer.Address.builder()
+                                .line1("6F Launchpad")
+                                .line2("Reliance Street")
+                                .city("Mandaluyong City")
+                                .state("Metro Manila")
+                                .zipCode("1552")
+                                .countryCode("PH")
+                                .build())
+                        .build())
+                .items(items)
+                .redirectUrl(RedirectUrl.builder()
+                        .success("https://www.merchantsite.com/success")
+                        .failure("https://www.merchantsite.com/failure")
+                        .cancel("https://www.merchantsite.com/cancel")
+                        .build())
+                .requestReferenceNumber("6319921")
+                .build();
+    }
+
+    @Benchmark
+    public int encodeCheckoutRequest() {
+        DataBuffer buffer = encoder.encodeValue(request, bufferFactory, CHECKOUT_REQUEST_TYPE,
+                MediaType.APPLICATION_JSON, Collections.emptyMap());
+        int length = buffer.readableByteCount();
+        // released by Reactor Netty once written
+        DataBufferUtils.release(buffer);
+
+        return length;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+import org.vincenzolabs.maya.helper.AuthorizationHelper;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request work of building the URI and headers of a refund request through a
+ * {@link org.springframework.web.util.UriBuilder} with {@link AuthorizationHelper}, against a precompiled
+ * {@link RequestTemplate} with a cached Authorization header. Run with {@code -prof gc} to compare allocations.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestTemplateBenchmark {
+
+    private static final String BASE_URL = "https://pg-sandbox.paymaya.com";
+
+    private static final String PATH = "/payments/v1/payments/{paymentId}/refunds";
+
+    private static final String SECRET_KEY = "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe";
+
+    private static final String PAYMENT_ID = "b6b4a3d4-9fdb-4a0b-9a4e-7c4d1c3c6b55";
+
+    private final UriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(BASE_URL);
+
+    private final RequestTemplate template = RequestTemplate.post("refund", EndpointFamily.PAYMENTS, PATH, true);
+
+    private final String authorization = AuthorizationHelper.getAuthorization(SECRET_KEY);
+
+    @Benchmark
+    public void uriBuilder(Blackhole blackhole) {
+        URI uri = uriBuilderFactory.builder().path(PATH).build(PAYMENT_ID);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.AUTHORIZATION, AuthorizationHelper.getAuthorization(SECRET_KEY));
+
+        blackhole.consume(uri);
+        blackhole.consume(headers);
+    }
+
+    @Benchmark
+    public void requestTemplate(Blackhole blackhole) {
+        URI uri = template.expand(BASE_URL, PAYMENT_ID);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(template.getHeaders());
+        headers.add(HttpHeaders.AUTHORIZATION, authorization);
+
+        blackhole.consume(uri);
+        blackhole.consume(headers);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.enumeration.TlsProvider;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.server.HttpServer;
+
+import java.security.cert.CertificateException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of payment lookups secured by the TLS engines of the JDK and of OpenSSL, against a local
+ * TLS stub of the payment gateway. The new connection lookups are closed by the stub, so that each one does a
+ * handshake, which resumes the cached session of the previous one, while the pooled connection lookups reuse one.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TlsProviderBenchmark {
+
+    private static final String CLOSING_PAYMENT_ID = "5a7e3f4c-2b1d-4e8a-9c6f-0d2b4a8e1f37";
+
+    @Param({"JDK", "OPENSSL"})
+    private TlsProvider tlsProvider;
+
+    private SelfSignedCertificate certificate;
+
+    private DisposableServer server;
+
+    private MayaV1Client client;
+
+    private String paymentId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CertificateException {
+        paymentId = UUID.randomUUID().toString();
+        certificate = new SelfSignedCertificate("localhost");
+        server = HttpServer.create()
+                .port(0)
+                .secure(spec -> spec.sslContext(Http11SslContextSpec.forServer(certificate.certificate(),
+                        certificate.privateKey())))
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .header("Connection", CLOSING_PAYMENT_ID.equals(request.param("paymentId"))
+                                        ? "close" : "keep-alive")
+                                .sendString(Mono.just("{\"id\":\"" + request.param("paymentId")
+                                        + "\",\"status\":\"PAYMENT_SUCCESS\"}"))))
+                .bindNow();
+
+        MayaProperties properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("https://localhost:" + server.port());
+        properties.getKey().setSecret("sk-benchmark");
+        MayaTransport transport = ReactorNettyTransport.builder()
+                .maxConnections(1)
+                .tlsProvider(tlsProvider)
+                .tlsSessionCacheSize(64)
+                .sslContextCustomizer(builder -> builder.trustManager(certificate.certificate()))
+                .build();
+        client = new MayaV1Client(properties, transport, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.destroy();
+        server.disposeNow();
+        certificate.delete();
+    }
+
+    @Benchmark
+    public PaymentResponse newConnection() {
+        return client.retrievePaymentByPaymentId(CLOSING_PAYMENT_ID).block();
+    }
+
+    @Benchmark
+    public PaymentResponse pooledConnection() {
+        return client.retrievePaymentByPaymentId(paymentId).block();
+    }
+}
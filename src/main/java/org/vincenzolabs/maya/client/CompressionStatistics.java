@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number of bytes of the compressed request and response bodies of a {@link MayaV1Client}, before and after
+ * compression. Bodies sent or received uncompressed are not counted.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public final class CompressionStatistics {
+
+    private final LongAdder requestBytes = new LongAdder();
+
+    private final LongAdder compressedRequestBytes = new LongAdder();
+
+    private final LongAdder responseBytes = new LongAdder();
+
+    private final LongAdder compressedResponseBytes = new LongAdder();
+
+    /**
+     * Records a compressed request body.
+     *
+     * @param bytes           the number of bytes before compression
+     * @param compressedBytes the number of bytes sent
+     */
+    void recordRequest(long bytes, long compressedBytes) {
+        requestBytes.add(bytes);
+        compressedRequestBytes.add(compressedBytes);
+    }
+
+    /**
+     * Records a compressed response body.
+     *
+     * @param bytes           the number of bytes after decompression
+     * @param compressedBytes the number of bytes received
+     */
+    void recordResponse(long bytes, long compressedBytes) {
+        responseBytes.add(bytes);
+        compressedResponseBytes.add(compressedBytes);
+    }
+
+    /**
+     * Returns the number of bytes of the compressed request bodies before compression.
+     *
+     * @return the number of bytes
+     */
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    /**
+     * Returns the number of bytes of the compressed request bodies sent.
+     *
+     * @return the number of bytes
+     */
+    public long getCompressedRequestBytes() {
+        return compressedRequestBytes.sum();
+    }
+
+    /**
+     * Returns the number of bytes of the compressed response bodies after decompression.
+     *
+     * @return the number of bytes
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * Returns the number of bytes of the compressed response bodies received.
+     *
+     * @return the number of bytes
+     */
+    public long getCompressedResponseBytes() {
+        return compressedResponseBytes.sum();
+    }
+
+    /**
+     * Returns the number of bytes saved by compressing request bodies.
+     *
+     * @return the number of bytes
+     */
+    public long getRequestBytesSaved() {
+        return getRequestBytes() - getCompressedRequestBytes();
+    }
+
+    /**
+     * Returns the number of bytes saved by compressing response bodies.
+     *
+     * @return the number of bytes
+     */
+    public long getResponseBytesSaved() {
+        return getResponseBytes() - getCompressedResponseBytes();
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An adaptive limit on the number of in-flight calls, which grows by one when a call completes within the latency
+ * threshold while the limit is in use, and shrinks multiplicatively (AIMD) when a call is slow or fails with a
+ * transient error. Calls over the limit wait in a bounded queue for a bounded time, or are rejected immediately
+ * with {@link ApiRejectedException}. Waiting is done by deferring the subscription, so no thread is ever blocked.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class ConcurrencyLimiter {
+
+    private static final int WAITING = 0;
+
+    private static final int GRANTED = 1;
+
+    private static final int CANCELLED = 2;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final long latencyThresholdNanos;
+
+    private final int maxQueueSize;
+
+    private final Duration maxWait;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private int limit;
+
+    private int inFlight;
+
+    /**
+     * Default constructor.
+     *
+     * @param name             the name used in error messages
+     * @param initialLimit     the initial limit
+     * @param minLimit         the minimum limit
+     * @param maxLimit         the maximum limit
+     * @param backoffRatio     the factor between 0 and 1 applied to the limit after a slow or failed call
+     * @param latencyThreshold the latency above which a successful call counts as slow
+     * @param maxQueueSize     the maximum number of calls waiting for a permit
+     * @param maxWait          the maximum time a call waits for a permit
+     */
+    ConcurrencyLimiter(final String name, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                       Duration latencyThreshold, int maxQueueSize, Duration maxWait) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxQueueSize = maxQueueSize;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the current limit
+     */
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of in-flight calls.
+     *
+     * @return the number of in-flight calls
+     */
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Subscribes to the given {@link Mono} once a permit is available, and releases the permit when it terminates
+     * or is cancelled.
+     *
+     * @param source the {@link Mono}
+     * @param <T>    the type of the response
+     * @return the limited {@link Mono}
+     */
+    <T> Mono<T> limit(Mono<T> source) {
+        return limit(source, null);
+    }
+
+    /**
+     * Subscribes to the given {@link Mono} once a permit is available, and releases the permit when it terminates
+     * or is cancelled. A call still waiting for a permit when the given {@link Deadline} expires fails with
+     * {@link TimeoutException}.
+     *
+     * @param source   the {@link Mono}
+     * @param deadline the {@link Deadline}, or null if there is none
+     * @param <T>      the type of the response
+     * @return the limited {@link Mono}
+     */
+    <T> Mono<T> limit(Mono<T> source, Deadline deadline) {
+        return acquire(deadline).flatMap(permit -> source
+                .doOnError(permit::setError)
+                .doFinally(signal -> release(permit, signal)));
+    }
+
+    /**
+     * Subscribes to the given {@link Flux} once a permit is available, and releases the permit when it terminates
+     * or is cancelled.
+     *
+     * @param source the {@link Flux}
+     * @param <T>    the type of the elements
+     * @return the limited {@link Flux}
+     */
+    <T> Flux<T> limit(Flux<T> source) {
+        return limit(source, null);
+    }
+
+    /**
+     * Subscribes to the given {@link Flux} once a permit is available, and releases the permit when it terminates
+     * or is cancelled. A call still waiting for a permit when the given {@link Deadline} expires fails with
+     * {@link TimeoutException}.
+     *
+     * @param source   the {@link Flux}
+     * @param deadline the {@link Deadline}, or null if there is none
+     * @param <T>      the type of the elements
+     * @return the limited {@link Flux}
+     */
+    <T> Flux<T> limit(Flux<T> source, Deadline deadline) {
+        return acquire(deadline).flatMapMany(permit -> source
+                .doOnError(permit::setError)
+                .doFinally(signal -> release(permit, signal)));
+    }
+
+    private Mono<Permit> acquire(Deadline deadline) {
+        Mono<Permit> permit = Mono.create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (inFlight < limit) {
+                    inFlight++;
+                    waiter = null;
+                } else if (waiters.size() < maxQueueSize && maxWait.toNanos() > 0) {
+                    waiter = new Waiter(sink);
+                    waiters.add(waiter);
+                } else {
+                    sink.error(new ApiRejectedException("Concurrency limit of " + limit + " reached for " + name,
+                            null));
+                    return;
+                }
+            }
+
+            if (waiter == null) {
+                sink.success(new Permit());
+            } else {
+                sink.onCancel(() -> cancel(waiter));
+            }
+        });
+
+        if (maxWait.toNanos() <= 0) {
+            return permit;
+        }
+
+        Mono<Permit> rejected = Mono.error(() -> new ApiRejectedException("Timed out after " + maxWait
+                + " waiting for a permit of " + name, null));
+        if (deadline == null) {
+            return permit.timeout(maxWait, rejected);
+        }
+
+        // the remaining time is only known once the call, which may have waited for a token first, is subscribed
+        return Mono.defer(() -> {
+            Duration remaining = deadline.remaining();
+            if (remaining.compareTo(maxWait) >= 0) {
+                return permit.timeout(maxWait, rejected);
+            }
+
+            return permit.timeout(remaining.isNegative() ? Duration.ZERO : remaining, Mono.error(() ->
+                    new TimeoutException("Deadline expired waiting for a permit of " + name)));
+        });
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+        } else {
+            // the permit was granted concurrently but can no longer be delivered
+            release(new Permit(), SignalType.CANCEL);
+        }
+    }
+
+    private void release(Permit permit, SignalType signal) {
+        long latency = System.nanoTime() - permit.startNanos;
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            if (signal == SignalType.ON_COMPLETE && latency <= latencyThresholdNanos) {
+                // only grow the limit while it is actually in use
+                if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            } else if (signal == SignalType.ON_COMPLETE
+                    || signal == SignalType.ON_ERROR && RetryPolicy.isTransient(permit.error)) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            }
+            inFlight--;
+
+            while (inFlight < limit && !waiters.isEmpty()) {
+                Waiter waiter = waiters.poll();
+                if (waiter.state.compareAndSet(WAITING, GRANTED)) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+        }
+
+        // completes the waiters outside the lock since that subscribes to their sources
+        for (Waiter waiter : granted) {
+            waiter.sink.success(new Permit());
+        }
+    }
+
+    private static final class Permit {
+
+        private final long startNanos = System.nanoTime();
+
+        private Throwable error;
+
+        private void setError(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Permit> sink;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+}
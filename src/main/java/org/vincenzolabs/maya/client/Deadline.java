@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The point in time by which a caller needs a response. When written to the Reactor {@link Context} of a
+ * {@link MayaV1Client} call, the remaining time caps the configured endpoint timeout e.g.
+ * <pre>{@code
+ * client.retrievePaymentByPaymentId(paymentId)
+ *         .contextWrite(Deadline.after(Duration.ofSeconds(2)).toContext());
+ * }</pre>
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public final class Deadline {
+
+    private static final Class<Deadline> KEY = Deadline.class;
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Returns the {@link Deadline} that expires after the given {@link Duration} from now.
+     *
+     * @param duration the {@link Duration}
+     * @return the {@link Deadline}
+     */
+    public static Deadline after(Duration duration) {
+        return new Deadline(System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * Returns the {@link Deadline} stored in the given {@link ContextView}, if any.
+     *
+     * @param context the {@link ContextView}
+     * @return the {@link Deadline} {@link Optional}
+     */
+    public static Optional<Deadline> from(ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+
+    /**
+     * Returns the time remaining before this deadline expires, which is negative once expired.
+     *
+     * @return the remaining {@link Duration}
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Returns whether this deadline has expired.
+     *
+     * @return true if expired
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns a {@link Context} holding this deadline, to be passed to {@code contextWrite}.
+     *
+     * @return the {@link Context}
+     */
+    public Context toContext() {
+        return Context.of(KEY, this);
+    }
+}
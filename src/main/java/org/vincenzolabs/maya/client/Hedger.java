@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hedges idempotent calls by sending a second attempt when the first has not answered within a percentile of the
+ * recent latencies, keeping whichever answers first and cancelling the other. Once hedged, a call only fails if both
+ * attempts fail, e.g. a hedge rejected by a limiter does not fail the first attempt. Hedges are paid from a budget that
+ * earns a fraction of a hedge per call, so they cannot add more than that fraction of extra load.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class Hedger {
+
+    private static final double MAX_BALANCE = 10;
+
+    private final double percentile;
+
+    private final long minDelayNanos;
+
+    private final double budgetRatio;
+
+    private final int minSamples;
+
+    private final long[] samples;
+
+    private int count;
+
+    private int index;
+
+    private int sinceRefresh;
+
+    private long delayNanos = -1;
+
+    private double balance;
+
+    /**
+     * Default constructor.
+     *
+     * @param percentile    the percentile between 0 and 100 of the latencies after which a hedge is sent
+     * @param minDelay      the minimum time after which a hedge is sent
+     * @param budgetPercent the maximum extra load in percent of the calls
+     * @param windowSize    the number of recent latencies the percentile is computed from
+     */
+    Hedger(double percentile, Duration minDelay, double budgetPercent, int windowSize) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio = budgetPercent / 100;
+        this.samples = new long[Math.max(1, windowSize)];
+        this.minSamples = Math.max(1, samples.length / 10);
+    }
+
+    /**
+     * Subscribes to the given attempt, and subscribes to it again if the first subscription has not signalled
+     * within the hedge delay and the budget allows. The error of the attempt failing first is dropped while the other
+     * is still in flight.
+     *
+     * @param attempt the {@link Mono} which sends a request per subscription
+     * @param <T>     the type of the response
+     * @return the hedged {@link Mono}
+     */
+    <T> Mono<T> hedge(Mono<T> attempt) {
+        return Mono.defer(() -> {
+            Mono<T> recorded = record(attempt);
+            Duration delay = deposit();
+            if (delay == null) {
+                return recorded;
+            }
+
+            AtomicBoolean hedging = new AtomicBoolean();
+            AtomicBoolean failed = new AtomicBoolean();
+            Mono<T> first = recorded.onErrorResume(e -> hedging.get() && failed.compareAndSet(false, true)
+                    ? Mono.never() : Mono.error(e));
+            // never signals if the budget is spent so that the first attempt always wins
+            Mono<T> hedged = Mono.delay(delay)
+                    .flatMap(tick -> {
+                        if (!withdraw()) {
+                            return Mono.never();
+                        }
+                        hedging.set(true);
+
+                        return recorded.onErrorResume(e -> failed.compareAndSet(false, true)
+                                ? Mono.never() : Mono.error(e));
+                    });
+
+            return Mono.firstWithSignal(first, hedged);
+        });
+    }
+
+    /**
+     * Returns the current hedge delay.
+     *
+     * @return the hedge delay, or null while there are too few latencies
+     */
+    synchronized Duration getDelay() {
+        if (count < minSamples) {
+            return null;
+        }
+        if (delayNanos < 0 || sinceRefresh >= minSamples) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+            delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, Math.min(count - 1, rank))]);
+            sinceRefresh = 0;
+        }
+
+        return Duration.ofNanos(delayNanos);
+    }
+
+    /**
+     * Records the latency of a successful call.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    synchronized void record(long nanos) {
+        samples[index] = nanos;
+        index = (index + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        sinceRefresh++;
+    }
+
+    private <T> Mono<T> record(Mono<T> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.doOnSuccess(response -> record(System.nanoTime() - start));
+        });
+    }
+
+    private synchronized Duration deposit() {
+        balance = Math.min(MAX_BALANCE, balance + budgetRatio);
+        return getDelay();
+    }
+
+    private synchronized boolean withdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import lombok.Builder;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.vincenzolabs.maya.enumeration.HttpProtocolVersion;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@link MayaTransport} on the {@link HttpClient} of the JDK, which needs neither Reactor Netty nor its event
+ * loop. HTTP/2 is negotiated with ALPN over TLS and with an upgrade over cleartext, falling back to HTTP/1.1 either
+ * way. The connection pool of the JDK is not configurable.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@Builder
+public final class JdkHttpClientTransport implements MayaTransport {
+
+    private final Duration connectTimeout;
+
+    private final HttpProtocolVersion protocolVersion;
+
+    private final Executor executor;
+
+    @Override
+    public ClientHttpConnector createConnector(final String paymentGatewayUrl) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(protocolVersion == null || protocolVersion == HttpProtocolVersion.H1
+                        ? HttpClient.Version.HTTP_1_1 : HttpClient.Version.HTTP_2);
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        if (executor != null) {
+            builder.executor(executor);
+        }
+
+        return new JdkClientHttpConnector(builder.build());
+    }
+
+    @Override
+    public boolean isTimeout(Throwable cause) {
+        return cause instanceof HttpTimeoutException;
+    }
+
+    @Override
+    public boolean isConnectTimeout(Throwable cause) {
+        return cause instanceof HttpConnectTimeoutException;
+    }
+
+    @Override
+    public void dispose() {
+        // the HttpClient releases its connections and threads once unreachable
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The JSON codecs of the Maya DTOs, independent of any {@link ObjectMapper} of the application. The
+ * {@link ObjectMapper} is the one of {@link Jackson2ObjectMapperBuilder} that {@code WebClient} would create, with
+ * the JSR-310 module and, except in a native image, the Blackbird module, which replaces the reflective access to
+ * the getters, setters and constructors with generated lambdas. The {@link ObjectMapper} caches the serializers and
+ * deserializers of each DTO type. The encoder also reuses the {@link ObjectWriter} built once per DTO type, and
+ * generates a request body straight into a buffer of the transport, e.g. a pooled Netty {@code ByteBuf}, instead of
+ * an intermediate byte array.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class JsonCodecs {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * Creates the {@link ObjectMapper} of the Maya DTOs.
+     *
+     * @return the {@link ObjectMapper}
+     */
+    static ObjectMapper createObjectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (NativeDetector.inNativeImage()) {
+            // generates classes at runtime, which a native image does not support
+            builder.modulesToInstall(new JavaTimeModule());
+        } else {
+            builder.modulesToInstall(new JavaTimeModule(), new BlackbirdModule());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Creates the {@link Jackson2JsonDecoder} with the given {@link ObjectMapper}.
+     *
+     * @param objectMapper    the {@link ObjectMapper}
+     * @param maxInMemorySize the maximum number of bytes of a response buffered in memory
+     * @return the {@link Jackson2JsonDecoder}
+     */
+    static Jackson2JsonDecoder createDecoder(ObjectMapper objectMapper, int maxInMemorySize) {
+        Jackson2JsonDecoder decoder = new Jackson2JsonDecoder(objectMapper);
+        decoder.setMaxInMemorySize(maxInMemorySize);
+
+        return decoder;
+    }
+
+    /**
+     * Creates the {@link Jackson2JsonEncoder} with the given {@link ObjectMapper}.
+     *
+     * @param objectMapper the {@link ObjectMapper}
+     * @return the {@link Jackson2JsonEncoder}
+     */
+    static Jackson2JsonEncoder createEncoder(ObjectMapper objectMapper) {
+        return new Jackson2JsonEncoder(objectMapper) {
+
+            private final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+            @Override
+            public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                          MimeType mimeType, Map<String, Object> hints) {
+                JsonEncoding encoding = getJsonEncoding(mimeType);
+                if (hints != null && hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT)
+                        || encoding != JsonEncoding.UTF8) {
+                    return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+                }
+
+                ObjectWriter writer = writers.computeIfAbsent(valueType.getType(),
+                        type -> objectMapper.writerFor(objectMapper.constructType(type)));
+                // written by the generator straight into the buffer, e.g. a pooled ByteBuf released after the write
+                DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_SIZE);
+                boolean release = true;
+                try (JsonGenerator generator = writer.createGenerator(buffer.asOutputStream(), encoding)) {
+                    writer.writeValue(generator, value);
+                    release = false;
+                } catch (IOException e) {
+                    throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+                } finally {
+                    if (release) {
+                        DataBufferUtils.release(buffer);
+                    }
+                }
+
+                return buffer;
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The registry of {@link MayaV1Client}s of sub-merchants, each with its own public and secret keys. The clients are
+ * views of the {@link MayaV1Client} configured with the {@code maya.*} properties, sharing its connection pool, event
+ * loop, timeouts, retries, circuit breakers, limits and cache, so that a merchant only costs its keys and their
+ * encoded Authorization headers. Merchants may be registered and unregistered at any time. The rate limits and
+ * cached responses of a merchant are released with its keys, unless another merchant or the shared client still uses
+ * them.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public class MayaClientRegistry {
+
+    private final MayaV1Client client;
+
+    private final ConcurrentMap<String, MayaV1Client> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param client the shared {@link MayaV1Client}
+     */
+    public MayaClientRegistry(MayaV1Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Registers the merchant with the given keys, replacing the keys of a merchant with the same ID. Its calls are
+     * rate limited by the {@code maya.rate-limit.*} properties.
+     *
+     * @param merchantId the merchant ID
+     * @param publicKey  the public key
+     * @param secretKey  the secret key
+     * @return the {@link MayaV1Client} of the merchant
+     */
+    public MayaV1Client register(final String merchantId, final String publicKey, final String secretKey) {
+        return register(merchantId, publicKey, secretKey, null);
+    }
+
+    /**
+     * Registers the merchant with the given keys and rate limit, replacing the keys of a merchant with the same ID.
+     * If {@code maya.rate-limit.enabled}, the calls with each key of the merchant to each endpoint family are limited
+     * to the given rate instead of the one of the properties, e.g. a lower rate for the keys of a batch job. Merchants
+     * sharing keys should share their rate, since the bucket of a key is replaced whenever its rate changes.
+     *
+     * @param merchantId       the merchant ID
+     * @param publicKey        the public key
+     * @param secretKey        the secret key
+     * @param permitsPerSecond the permits per second, or null for the {@code maya.rate-limit.*} properties
+     * @return the {@link MayaV1Client} of the merchant
+     */
+    public synchronized MayaV1Client register(final String merchantId, final String publicKey,
+                                              final String secretKey, Double permitsPerSecond) {
+        MayaV1Client merchantClient = client.forMerchant(publicKey, secretKey, permitsPerSecond);
+        MayaV1Client previous = clients.put(merchantId, merchantClient);
+        if (previous != null) {
+            client.release(previous, clients.values());
+        }
+
+        return merchantClient;
+    }
+
+    /**
+     * Unregisters the merchant with the given ID, releasing the rate limits and cached responses of the keys no longer
+     * used.
+     *
+     * @param merchantId the merchant ID
+     * @return true if the merchant was registered
+     */
+    public synchronized boolean unregister(final String merchantId) {
+        MayaV1Client merchantClient = clients.remove(merchantId);
+        if (merchantClient == null) {
+            return false;
+        }
+        client.release(merchantClient, clients.values());
+
+        return true;
+    }
+
+    /**
+     * Returns the {@link MayaV1Client} of the merchant with the given ID.
+     *
+     * @param merchantId the merchant ID
+     * @return the {@link MayaV1Client} {@link Optional}
+     */
+    public Optional<MayaV1Client> getClient(final String merchantId) {
+        return Optional.ofNullable(clients.get(merchantId));
+    }
+
+    /**
+     * Returns the IDs of the registered merchants.
+     *
+     * @return the unmodifiable merchant IDs
+     */
+    public Set<String> getMerchantIds() {
+        return Collections.unmodifiableSet(clients.keySet());
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.vincenzolabs.maya.exception.ApiException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The Micrometer meters of a {@link MayaV1Client}, tagged by operation, e.g. {@code retrievePaymentByPaymentId},
+ * and endpoint family, but never by payment or any other resource ID:
+ * <ul>
+ *     <li>{@code maya.client.requests}, the timer of the requests to the payment gateway, including each retry and
+ *     hedge, with a percentile histogram, also tagged by outcome, HTTP status, {@link ApiException} code and
+ *     exception;</li>
+ *     <li>{@code maya.client.requests.active}, the gauge of the requests in flight;</li>
+ *     <li>{@code maya.client.request.bytes} and {@code maya.client.response.bytes}, the counters of the bytes of the
+ *     request bodies as sent and of the response bodies as decoded;</li>
+ *     <li>{@code maya.client.compression.*.bytes}, the counters of the {@link CompressionStatistics}.</li>
+ * </ul>
+ * The gauges of the Reactor Netty connection pool are registered by {@link ReactorNettyPoolMetrics} in the same
+ * {@link MeterRegistry}, so that this class does not depend on Reactor Netty, which may be excluded with the JDK
+ * transport.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public final class MayaMetrics {
+
+    static final String REQUESTS = "maya.client.requests";
+
+    static final String ACTIVE_REQUESTS = "maya.client.requests.active";
+
+    static final String REQUEST_BYTES = "maya.client.request.bytes";
+
+    static final String RESPONSE_BYTES = "maya.client.response.bytes";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    private final Map<RequestTemplate, AtomicInteger> activeRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param registry the {@link MeterRegistry}
+     */
+    public MayaMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times the given request to the payment gateway.
+     *
+     * @param template the {@link RequestTemplate}
+     * @param mono     the {@link Mono} of the request
+     * @param <T>      the type of the response
+     * @return the timed {@link Mono}
+     */
+    <T> Mono<T> instrument(RequestTemplate template, Mono<T> mono) {
+        return Mono.defer(() -> {
+            Exchange exchange = start(template);
+
+            return mono.doOnError(throwable -> exchange.error = throwable)
+                    .doFinally(signalType -> stop(template, exchange, signalType))
+                    .contextWrite(Context.of(Exchange.class, exchange));
+        });
+    }
+
+    /**
+     * Times the given request to the payment gateway until its last element.
+     *
+     * @param template the {@link RequestTemplate}
+     * @param flux     the {@link Flux} of the request
+     * @param <T>      the type of the elements of the response
+     * @return the timed {@link Flux}
+     */
+    <T> Flux<T> instrument(RequestTemplate template, Flux<T> flux) {
+        return Flux.defer(() -> {
+            Exchange exchange = start(template);
+
+            return flux.doOnError(throwable -> exchange.error = throwable)
+                    .doFinally(signalType -> stop(template, exchange, signalType))
+                    .contextWrite(Context.of(Exchange.class, exchange));
+        });
+    }
+
+    /**
+     * Returns the {@link ExchangeFilterFunction} that records the HTTP status and counts the bytes of the timed
+     * requests. It must be the last filter, so that it counts the request bodies as sent.
+     *
+     * @return the {@link ExchangeFilterFunction}
+     */
+    ExchangeFilterFunction filter() {
+        return MayaMetrics::filter;
+    }
+
+    /**
+     * Registers the counters of the given {@link CompressionStatistics}.
+     *
+     * @param statistics the {@link CompressionStatistics}
+     */
+    void bindTo(CompressionStatistics statistics) {
+        registerCompressionCounter("maya.client.compression.request.bytes", "uncompressed", statistics,
+                CompressionStatistics::getRequestBytes);
+        registerCompressionCounter("maya.client.compression.request.bytes", "compressed", statistics,
+                CompressionStatistics::getCompressedRequestBytes);
+        registerCompressionCounter("maya.client.compression.response.bytes", "uncompressed", statistics,
+                CompressionStatistics::getResponseBytes);
+        registerCompressionCounter("maya.client.compression.response.bytes", "compressed", statistics,
+                CompressionStatistics::getCompressedResponseBytes);
+    }
+
+    /**
+     * Returns the {@link MeterRegistry} of the meters, e.g. of the {@link ReactorNettyPoolMetrics}.
+     *
+     * @return the {@link MeterRegistry}
+     */
+    MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    private Exchange start(RequestTemplate template) {
+        activeRequests.computeIfAbsent(template, key -> {
+            AtomicInteger active = new AtomicInteger();
+            Gauge.builder(ACTIVE_REQUESTS, active, AtomicInteger::get)
+                    .description("The requests to the Maya payment gateway in flight")
+                    .tags(getTags(key))
+                    .register(registry);
+
+            return active;
+        }).incrementAndGet();
+
+        return new Exchange(Timer.start(registry));
+    }
+
+    private void stop(RequestTemplate template, Exchange exchange, SignalType signalType) {
+        Throwable error = exchange.error;
+        String code = error instanceof ApiException apiException && apiException.getApiError().getCode() != null
+                ? apiException.getApiError().getCode() : NONE;
+        Tags tags = getTags(template);
+        exchange.sample.stop(Timer.builder(REQUESTS)
+                .description("The requests to the Maya payment gateway")
+                .tags(tags)
+                .tag("outcome", getOutcome(exchange.status, error, signalType))
+                .tag("status", exchange.status == 0 ? NONE : Integer.toString(exchange.status))
+                .tag("code", code)
+                .tag("exception", error == null ? NONE : error.getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(registry));
+
+        Counter.builder(REQUEST_BYTES)
+                .description("The bytes of the request bodies sent to the Maya payment gateway")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry)
+                .increment(exchange.requestBytes);
+        Counter.builder(RESPONSE_BYTES)
+                .description("The bytes of the response bodies received from the Maya payment gateway")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry)
+                .increment(exchange.responseBytes);
+
+        // last, so that a request is no longer in flight only once recorded
+        activeRequests.get(template).decrementAndGet();
+    }
+
+    private static Tags getTags(RequestTemplate template) {
+        return Tags.of("operation", template.getName(),
+                "family", template.getFamily().name().toLowerCase(Locale.ROOT));
+    }
+
+    private static String getOutcome(int status, Throwable error, SignalType signalType) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (error != null) {
+            return "ERROR";
+        }
+
+        return signalType == SignalType.CANCEL ? "CANCELLED" : "SUCCESS";
+    }
+
+    private void registerCompressionCounter(final String name, final String encoding,
+                                            CompressionStatistics statistics,
+                                            ToDoubleFunction<CompressionStatistics> function) {
+        FunctionCounter.builder(name, statistics, function)
+                .description("The bytes of the compressed bodies exchanged with the Maya payment gateway")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .register(registry);
+    }
+
+    private static Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Exchange exchange = context.getOrDefault(Exchange.class, null);
+            if (exchange == null) {
+                return next.exchange(request);
+            }
+
+            ClientRequest countedRequest = ClientRequest.from(request)
+                    .body((outputMessage, bodyContext) -> request.body()
+                            .insert(new CountedRequest(outputMessage, exchange), bodyContext))
+                    .build();
+
+            return next.exchange(countedRequest)
+                    .map(response -> {
+                        exchange.status = response.statusCode().value();
+
+                        return response.mutate()
+                                .body(body -> body.doOnNext(buffer ->
+                                        exchange.responseBytes += buffer.readableByteCount()))
+                                .build();
+                    });
+        });
+    }
+
+    /**
+     * The HTTP status and the bytes of a timed request.
+     */
+    private static final class Exchange {
+
+        private final Timer.Sample sample;
+
+        private volatile int status;
+
+        private volatile long requestBytes;
+
+        private volatile long responseBytes;
+
+        private volatile Throwable error;
+
+        Exchange(Timer.Sample sample) {
+            this.sample = sample;
+        }
+    }
+
+    /**
+     * The {@link ClientHttpRequest} that counts the bytes of its body as it is written.
+     */
+    private static final class CountedRequest extends ClientHttpRequestDecorator {
+
+        private final Exchange exchange;
+
+        CountedRequest(ClientHttpRequest delegate, Exchange exchange) {
+            super(delegate);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> exchange.requestBytes += buffer.readableByteCount()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import reactor.core.publisher.Mono;
+
+/**
+ * The HTTP engine underneath {@link MayaV1Client}. The client only depends on the {@link ClientHttpConnector} it
+ * creates, so an engine can be swapped without pulling in the libraries of another, e.g. a batch job can use
+ * {@link JdkHttpClientTransport} without Reactor Netty.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public interface MayaTransport {
+
+    /**
+     * Creates the {@link ClientHttpConnector} shared by all requests to the given payment gateway URL.
+     *
+     * @param paymentGatewayUrl the payment gateway URL
+     * @return the {@link ClientHttpConnector}
+     */
+    ClientHttpConnector createConnector(String paymentGatewayUrl);
+
+    /**
+     * Returns whether the given cause of a failed request is a timeout of this engine, other than a
+     * {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param cause the {@link Throwable}
+     * @return true if a timeout
+     */
+    boolean isTimeout(Throwable cause);
+
+    /**
+     * Returns whether the given cause of a failed request is a connect timeout.
+     *
+     * @param cause the {@link Throwable}
+     * @return true if a connect timeout
+     */
+    boolean isConnectTimeout(Throwable cause);
+
+    /**
+     * Loads the resources that the first request would otherwise wait for, e.g. event loops and the DNS resolver,
+     * after {@link #createConnector(String)}. This does not connect to the payment gateway.
+     *
+     * @return the {@link Mono} that completes when warmed up
+     */
+    default Mono<Void> warmUp() {
+        return Mono.empty();
+    }
+
+    /**
+     * Releases the connections and threads held by this engine.
+     */
+    void dispose();
+}
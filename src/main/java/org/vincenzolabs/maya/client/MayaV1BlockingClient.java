@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.vincenzolabs.maya.dto.CheckoutGETResponse;
+import org.vincenzolabs.maya.dto.CheckoutPOSTResponse;
+import org.vincenzolabs.maya.dto.CheckoutRequest;
+import org.vincenzolabs.maya.dto.CustomizationRequest;
+import org.vincenzolabs.maya.dto.CustomizationResponse;
+import org.vincenzolabs.maya.dto.PaymentRequest;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.dto.RefundRequest;
+import org.vincenzolabs.maya.dto.RefundResponse;
+import org.vincenzolabs.maya.dto.SinglePaymentPOSTResponse;
+import org.vincenzolabs.maya.dto.VoidRequest;
+import org.vincenzolabs.maya.dto.VoidResponse;
+import org.vincenzolabs.maya.dto.WalletLinkGETResponse;
+import org.vincenzolabs.maya.dto.WalletLinkPOSTResponse;
+import org.vincenzolabs.maya.dto.WebhookRequest;
+import org.vincenzolabs.maya.dto.WebhookResponse;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The blocking Maya v1 client for imperative callers, e.g. Spring MVC controllers, with the same operations as
+ * {@link MayaV1Client} returning the responses instead of publishers. Errors are thrown as they are, e.g.
+ * {@link org.vincenzolabs.maya.exception.ApiException}.
+ * <p>
+ * The calling thread waits on a latch without holding any monitor, so a virtual thread is unmounted while the
+ * request is in flight instead of pinning its carrier thread. Run the callers on {@link #newTaskExecutor(int)} to
+ * get a virtual thread per call on Java 21 or later, or a bounded pool of platform threads on earlier versions.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public class MayaV1BlockingClient {
+
+    private final MayaV1Client client;
+
+    /**
+     * Default constructor.
+     *
+     * @param client the {@link MayaV1Client}
+     */
+    public MayaV1BlockingClient(MayaV1Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} which starts a virtual thread per task on Java 21 or later. On earlier
+     * versions, it runs the tasks on at most the given number of platform threads, stopped after a minute idle, and
+     * queues the other tasks, e.g. the maximum number of pooled connections, beyond which the tasks would only wait
+     * for a connection anyway.
+     *
+     * @param maxThreads the maximum number of platform threads before Java 21
+     * @return the {@link ExecutorService}
+     */
+    public static ExecutorService newTaskExecutor(int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("The maximum number of threads must be positive");
+        }
+
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class))
+                    .invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 1, TimeUnit.MINUTES,
+                    new LinkedBlockingQueue<>());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Creates a credit card checkout payment. This requires the public key as username.
+     *
+     * @param request the {@link CheckoutRequest}
+     * @return the {@link CheckoutPOSTResponse}
+     */
+    public CheckoutPOSTResponse createCheckoutPayment(CheckoutRequest request) {
+        return client.createCheckoutPayment(request).block();
+    }
+
+    /**
+     * Retrieves a credit card checkout payment by checkout ID. This requires the secret key as username.
+     *
+     * @param checkoutId the checkout ID
+     * @return the {@link CheckoutGETResponse}
+     */
+    public CheckoutGETResponse retrieveCheckoutPayment(final String checkoutId) {
+        return client.retrieveCheckoutPayment(checkoutId).block();
+    }
+
+    /**
+     * Creates a single payment transaction using a Maya account. This requires the public key as username.
+     *
+     * @param request the {@link CheckoutRequest}
+     * @return the {@link CheckoutPOSTResponse}
+     */
+    public SinglePaymentPOSTResponse createSinglePayment(PaymentRequest request) {
+        return client.createSinglePayment(request).block();
+    }
+
+    /**
+     * Retrieves a single payment transaction by payment ID. This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @return the {@link PaymentResponse}
+     */
+    public PaymentResponse retrievePaymentByPaymentId(final String paymentId) {
+        return client.retrievePaymentByPaymentId(paymentId).block();
+    }
+
+    /**
+     * Retrieves a set of transactions indicated by the request reference number (RRN).
+     * This requires the secret key as username.
+     *
+     * @param requestReferenceNumber the request reference number
+     * @return the {@link PaymentResponse}s
+     */
+    public List<PaymentResponse> retrievePaymentsByRequestReferenceNumber(final String requestReferenceNumber) {
+        return client.retrievePaymentsByRequestReferenceNumber(requestReferenceNumber).collectList().block();
+    }
+
+    /**
+     * Creates a wallet link that allows charging to a Maya account. This requires the secret key as username.
+     *
+     * @param request the {@link PaymentRequest}
+     * @return the {@link WalletLinkPOSTResponse}
+     */
+    public WalletLinkPOSTResponse createWalletLink(PaymentRequest request) {
+        return client.createWalletLink(request).block();
+    }
+
+    /**
+     * Executes a payment transaction using an established wallet link. This requires the secret key as username.
+     *
+     * @param linkId  the wallet link ID
+     * @param request the {@link PaymentRequest}
+     * @return the {@link PaymentResponse}
+     */
+    public PaymentResponse createRecurringPayment(final String linkId, PaymentRequest request) {
+        return client.createRecurringPayment(linkId, request).block();
+    }
+
+    /**
+     * Retrieves the details of a linked wallet. This requires the secret key as username.
+     *
+     * @param linkId the wallet link ID
+     * @return the {@link WalletLinkGETResponse}
+     */
+    public WalletLinkGETResponse retrieveWalletLink(final String linkId) {
+        return client.retrieveWalletLink(linkId).block();
+    }
+
+    /**
+     * Deactivates a Maya wallet link. This requires the secret key as username.
+     *
+     * @param linkId the wallet link ID
+     * @return the {@link WalletLinkGETResponse}
+     */
+    public WalletLinkGETResponse deactivateWalletLink(final String linkId) {
+        return client.deactivateWalletLink(linkId).block();
+    }
+
+    /**
+     * Voids a payment transaction after the 12am cutoff of the transaction date.
+     * This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @param request   the {@link VoidRequest}
+     * @return the {@link VoidResponse}
+     */
+    public VoidResponse voidPaymentByPaymentId(final String paymentId, VoidRequest request) {
+        return client.voidPaymentByPaymentId(paymentId, request).block();
+    }
+
+    /**
+     * Voids a payment transaction using merchant-provided reference number after 12am cutoff of the transaction date.
+     * This requires the secret key as username.
+     *
+     * @param requestReferenceNumber the request reference number
+     * @param request                the {@link VoidRequest}
+     * @return the {@link VoidResponse}
+     */
+    public VoidResponse voidPaymentByRequestReferenceNumber(final String requestReferenceNumber, VoidRequest request) {
+        return client.voidPaymentByRequestReferenceNumber(requestReferenceNumber, request).block();
+    }
+
+    /**
+     * Retrieves the voids for the given payment ID. This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @return the {@link VoidResponse}s
+     */
+    public List<VoidResponse> retrieveVoids(final String paymentId) {
+        return client.retrieveVoids(paymentId).collectList().block();
+    }
+
+    /**
+     * Retrieves the void with the given void ID for the given payment ID. This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @param voidId    the void ID
+     * @return the {@link VoidResponse}
+     */
+    public VoidResponse retrieveVoid(final String paymentId, final String voidId) {
+        return client.retrieveVoid(paymentId, voidId).block();
+    }
+
+    /**
+     * Refunds a payment transaction after the 12am cutoff of the transaction date.
+     * This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @param request   the {@link RefundRequest}
+     * @return the {@link RefundResponse}
+     */
+    public RefundResponse refundPaymentByPaymentId(final String paymentId, RefundRequest request) {
+        return client.refundPaymentByPaymentId(paymentId, request).block();
+    }
+
+    /**
+     * Refunds a payment transaction using merchant-provided reference number after 12am cutoff of the transaction date.
+     * This requires the secret key as username.
+     *
+     * @param requestReferenceNumber the request reference number
+     * @param request                the {@link RefundRequest}
+     * @return the {@link RefundResponse}
+     */
+    public RefundResponse refundPaymentByRequestReferenceNumber(final String requestReferenceNumber,
+                                                                RefundRequest request) {
+        return client.refundPaymentByRequestReferenceNumber(requestReferenceNumber, request).block();
+    }
+
+    /**
+     * Retrieves the refunds for the given payment ID. This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @return the {@link RefundResponse}s
+     */
+    public List<RefundResponse> retrieveRefunds(final String paymentId) {
+        return client.retrieveRefunds(paymentId).collectList().block();
+    }
+
+    /**
+     * Retrieves the refund with the given refund ID for the given payment ID. This requires the secret key as username.
+     *
+     * @param paymentId the payment ID
+     * @param refundId  the refund ID
+     * @return the {@link RefundResponse}
+     */
+    public RefundResponse retrieveRefund(final String paymentId, final String refundId) {
+        return client.retrieveRefund(paymentId, refundId).block();
+    }
+
+    /**
+     * Creates a checkout webhook. This requires the secret key as username.
+     *
+     * @param request the {@link WebhookRequest}
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse createCheckoutWebhook(WebhookRequest request) {
+        return client.createCheckoutWebhook(request).block();
+    }
+
+    /**
+     * Retrieves the checkout webhooks. This requires the secret key as username.
+     *
+     * @return the {@link WebhookResponse}s
+     */
+    public List<WebhookResponse> retrieveCheckoutWebhooks() {
+        return client.retrieveCheckoutWebhooks().collectList().block();
+    }
+
+    /**
+     * Updates the checkout webhook with the given webhook ID. This requires the secret key as username.
+     *
+     * @param webhookId the webhook ID
+     * @param request   the {@link WebhookRequest}
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse updateCheckoutWebhook(final String webhookId, WebhookRequest request) {
+        return client.updateCheckoutWebhook(webhookId, request).block();
+    }
+
+    /**
+     * Deletes the checkout webhook with the given webhook ID. This requires the secret key as username.
+     *
+     * @param webhookId the webhook ID
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse deleteCheckoutWebhook(final String webhookId) {
+        return client.deleteCheckoutWebhook(webhookId).block();
+    }
+
+    /**
+     * Creates a payment webhook. This requires the secret key as username.
+     *
+     * @param request the {@link WebhookRequest}
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse createPaymentWebhook(WebhookRequest request) {
+        return client.createPaymentWebhook(request).block();
+    }
+
+    /**
+     * Retrieves the payment webhooks. This requires the secret key as username.
+     *
+     * @return the {@link WebhookResponse}s
+     */
+    public List<WebhookResponse> retrievePaymentWebhooks() {
+        return client.retrievePaymentWebhooks().collectList().block();
+    }
+
+    /**
+     * Retrieves the payment webhook with the given webhook ID. This requires the secret key as username.
+     *
+     * @param webhookId the webhook ID
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse retrievePaymentWebhook(final String webhookId) {
+        return client.retrievePaymentWebhook(webhookId).block();
+    }
+
+    /**
+     * Updates the payment webhook with the given webhook ID. This requires the secret key as username.
+     *
+     * @param webhookId the webhook ID
+     * @param request   the {@link WebhookRequest}
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse updatePaymentWebhook(final String webhookId, WebhookRequest request) {
+        return client.updatePaymentWebhook(webhookId, request).block();
+    }
+
+    /**
+     * Deletes the payment webhook with the given webhook ID. This requires the secret key as username.
+     *
+     * @param webhookId the webhook ID
+     * @return the {@link WebhookResponse}
+     */
+    public WebhookResponse deletePaymentWebhook(final String webhookId) {
+        return client.deletePaymentWebhook(webhookId).block();
+    }
+
+    /**
+     * Customizes UI settings. This requires the secret key as username.
+     *
+     * @param request the {@link CustomizationRequest}
+     * @return the {@link CustomizationResponse}
+     */
+    public CustomizationResponse customize(CustomizationRequest request) {
+        return client.customize(request).block();
+    }
+
+    /**
+     * Removes the customizations. This requires the secret key as username.
+     */
+    public void removeCustomizations() {
+        client.removeCustomizations().block();
+    }
+}
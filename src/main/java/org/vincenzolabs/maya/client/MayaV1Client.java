@@ -21,15 +21,20 @@
  */
 package org.vincenzolabs.maya.client;
 
-import io.netty.handler.logging.LogLevel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.vincenzolabs.maya.config.MayaProperties;
 import org.vincenzolabs.maya.dto.CheckoutGETResponse;
 import org.vincenzolabs.maya.dto.CheckoutPOSTResponse;
 import org.vincenzolabs.maya.dto.CheckoutRequest;
@@ -47,15 +52,37 @@ import org.vincenzolabs.maya.dto.WalletLinkGETResponse;
 import org.vincenzolabs.maya.dto.WalletLinkPOSTResponse;
 import org.vincenzolabs.maya.dto.WebhookRequest;
 import org.vincenzolabs.maya.dto.WebhookResponse;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+import org.vincenzolabs.maya.enumeration.HttpTransport;
+import org.vincenzolabs.maya.enumeration.TlsProvider;
 import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import org.vincenzolabs.maya.exception.ApiTimeoutException;
 import org.vincenzolabs.maya.helper.AuthorizationHelper;
+import org.vincenzolabs.maya.helper.RetryAfterHelper;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
-import reactor.netty.transport.logging.AdvancedByteBufFormat;
+import reactor.util.context.ContextView;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
@@ -63,7 +90,6 @@ import java.util.regex.Pattern;
  *
  * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
  */
-@Component
 @Slf4j
 public class MayaV1Client {
 
@@ -83,17 +109,205 @@ public class MayaV1Client {
 
     private static final String RECURRING_PAYMENT_PATH = "/payby/v2/paymaya/link";
 
-    @Value("${maya.key.public:pk-MOfNKu3FmHMVHtjyjG7vhr7vFevRkWxmxYL1Yq6iFk5}")
-    private String publicKey;
+    private static final RequestTemplate CREATE_CHECKOUT_PAYMENT =
+            RequestTemplate.post("createCheckoutPayment", EndpointFamily.CHECKOUT, CHECKOUT_PATH, false);
 
-    @Value("${maya.key.secret:sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe}")
-    private String secretKey;
+    private static final RequestTemplate RETRIEVE_CHECKOUT_PAYMENT =
+            RequestTemplate.lookup("retrieveCheckoutPayment", EndpointFamily.CHECKOUT,
+                    CHECKOUT_PATH + "/{checkoutId}", true);
 
-    @Value("${maya.payment.gateway.url:https://pg-sandbox.paymaya.com}")
-    private String paymentGatewayUrl;
+    private static final RequestTemplate CREATE_SINGLE_PAYMENT =
+            RequestTemplate.post("createSinglePayment", EndpointFamily.PAY_BY, SINGLE_PAYMENT_PATH, false);
 
-    @Value("${spring.profiles.active:}")
-    private String activeProfile;
+    private static final RequestTemplate RETRIEVE_PAYMENT_BY_PAYMENT_ID =
+            RequestTemplate.lookup("retrievePaymentByPaymentId", EndpointFamily.PAYMENTS,
+                    PAYMENT_PATH + "/{paymentId}", true);
+
+    private static final RequestTemplate RETRIEVE_PAYMENTS_BY_REQUEST_REFERENCE_NUMBER =
+            RequestTemplate.get("retrievePaymentsByRequestReferenceNumber", EndpointFamily.PAYMENTS,
+                    PAYMENT_BY_REQUEST_REFERENCE_NUMBER_PATH + "/{requestReferenceNumber}", true);
+
+    private static final RequestTemplate CREATE_WALLET_LINK =
+            RequestTemplate.post("createWalletLink", EndpointFamily.PAY_BY, RECURRING_PAYMENT_PATH, false);
+
+    private static final RequestTemplate CREATE_RECURRING_PAYMENT =
+            RequestTemplate.post("createRecurringPayment", EndpointFamily.PAY_BY,
+                    RECURRING_PAYMENT_PATH + "/{linkId}/execute", true);
+
+    private static final RequestTemplate RETRIEVE_WALLET_LINK =
+            RequestTemplate.lookup("retrieveWalletLink", EndpointFamily.PAY_BY,
+                    RECURRING_PAYMENT_PATH + "/{linkId}", true);
+
+    private static final RequestTemplate DEACTIVATE_WALLET_LINK =
+            RequestTemplate.get("deactivateWalletLink", EndpointFamily.PAY_BY,
+                    RECURRING_PAYMENT_PATH + "/{linkId}", true);
+
+    private static final RequestTemplate VOID_PAYMENT_BY_PAYMENT_ID =
+            RequestTemplate.post("voidPaymentByPaymentId", EndpointFamily.PAYMENTS,
+                    PAYMENT_PATH + "/{paymentId}/voids", true);
+
+    private static final RequestTemplate VOID_PAYMENT_BY_REQUEST_REFERENCE_NUMBER =
+            RequestTemplate.post("voidPaymentByRequestReferenceNumber", EndpointFamily.PAYMENTS,
+                    PAYMENT_BY_REQUEST_REFERENCE_NUMBER_PATH + "/{requestReferenceNumber}/voids", true);
+
+    private static final RequestTemplate RETRIEVE_VOIDS =
+            RequestTemplate.get("retrieveVoids", EndpointFamily.PAYMENTS, PAYMENT_PATH + "/{paymentId}/voids", true);
+
+    private static final RequestTemplate RETRIEVE_VOID =
+            RequestTemplate.lookup("retrieveVoid", EndpointFamily.PAYMENTS,
+                    PAYMENT_PATH + "/{paymentId}/voids/{voidId}", true);
+
+    private static final RequestTemplate REFUND_PAYMENT_BY_PAYMENT_ID =
+            RequestTemplate.post("refundPaymentByPaymentId", EndpointFamily.PAYMENTS,
+                    PAYMENT_PATH + "/{paymentId}/refunds", true);
+
+    private static final RequestTemplate REFUND_PAYMENT_BY_REQUEST_REFERENCE_NUMBER =
+            RequestTemplate.post("refundPaymentByRequestReferenceNumber", EndpointFamily.PAYMENTS,
+                    PAYMENT_BY_REQUEST_REFERENCE_NUMBER_PATH + "/{paymentId}/refunds", true);
+
+    private static final RequestTemplate RETRIEVE_REFUNDS =
+            RequestTemplate.get("retrieveRefunds", EndpointFamily.PAYMENTS,
+                    PAYMENT_PATH + "/{paymentId}/refunds", true);
+
+    private static final RequestTemplate RETRIEVE_REFUND =
+            RequestTemplate.lookup("retrieveRefund", EndpointFamily.PAYMENTS,
+                    PAYMENT_PATH + "/{paymentId}/refunds/{refundId}", true);
+
+    private static final RequestTemplate CREATE_CHECKOUT_WEBHOOK =
+            RequestTemplate.post("createCheckoutWebhook", EndpointFamily.WEBHOOKS, CHECKOUT_WEBHOOK_PATH, true);
+
+    private static final RequestTemplate RETRIEVE_CHECKOUT_WEBHOOKS =
+            RequestTemplate.get("retrieveCheckoutWebhooks", EndpointFamily.WEBHOOKS, CHECKOUT_WEBHOOK_PATH, true);
+
+    private static final RequestTemplate UPDATE_CHECKOUT_WEBHOOK =
+            RequestTemplate.put("updateCheckoutWebhook", EndpointFamily.WEBHOOKS,
+                    CHECKOUT_WEBHOOK_PATH + "/{webhookId}", true);
+
+    private static final RequestTemplate DELETE_CHECKOUT_WEBHOOK =
+            RequestTemplate.delete("deleteCheckoutWebhook", EndpointFamily.WEBHOOKS,
+                    CHECKOUT_WEBHOOK_PATH + "/{webhookId}", true);
+
+    private static final RequestTemplate CREATE_PAYMENT_WEBHOOK =
+            RequestTemplate.post("createPaymentWebhook", EndpointFamily.WEBHOOKS, PAYMENT_WEBHOOK_PATH, true);
+
+    private static final RequestTemplate RETRIEVE_PAYMENT_WEBHOOKS =
+            RequestTemplate.get("retrievePaymentWebhooks", EndpointFamily.WEBHOOKS, PAYMENT_WEBHOOK_PATH, true);
+
+    private static final RequestTemplate RETRIEVE_PAYMENT_WEBHOOK =
+            RequestTemplate.get("retrievePaymentWebhook", EndpointFamily.WEBHOOKS,
+                    PAYMENT_WEBHOOK_PATH + "/{webhookId}", true);
+
+    private static final RequestTemplate UPDATE_PAYMENT_WEBHOOK =
+            RequestTemplate.put("updatePaymentWebhook", EndpointFamily.WEBHOOKS,
+                    PAYMENT_WEBHOOK_PATH + "/{webhookId}", true);
+
+    private static final RequestTemplate DELETE_PAYMENT_WEBHOOK =
+            RequestTemplate.delete("deletePaymentWebhook", EndpointFamily.WEBHOOKS,
+                    PAYMENT_WEBHOOK_PATH + "/{webhookId}", true);
+
+    private static final RequestTemplate CUSTOMIZE =
+            RequestTemplate.post("customize", EndpointFamily.CUSTOMIZATIONS, CUSTOMIZATION_PATH, true);
+
+    private static final RequestTemplate REMOVE_CUSTOMIZATIONS =
+            RequestTemplate.delete("removeCustomizations", EndpointFamily.CUSTOMIZATIONS, CUSTOMIZATION_PATH, true);
+
+    private static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
+    private static final int DEFAULT_WIRE_LOG_MAX_BODY_SIZE = 4 * 1024;
+
+    private static final int DEFAULT_WIRE_LOG_QUEUE_SIZE = 1024;
+
+    private static final Pattern DEBUG_PROFILES = Pattern.compile("local|dev|test");
+
+    private final MayaProperties properties;
+
+    private final String activeProfile;
+
+    private MayaTransport transport;
+
+    private boolean transportCreated;
+
+    private volatile WebClient webClient;
+
+    private RetryPolicy retryPolicy;
+
+    private Map<EndpointFamily, CircuitBreaker> circuitBreakers;
+
+    private Map<EndpointFamily, ConcurrencyLimiter> concurrencyLimiters;
+
+    private Map<EndpointFamily, ConcurrentMap<String, TokenBucketRateLimiter>> rateLimiters;
+
+    private Map<EndpointFamily, Hedger> hedgers;
+
+    private SingleFlight singleFlight;
+
+    private ResponseCache responseCache;
+
+    private CompressionStatistics compressionStatistics;
+
+    private WireLogFilter wireLogFilter;
+
+    private MayaMetrics metrics;
+
+    private final MayaV1Client root;
+
+    private final Credentials credentials;
+
+    /**
+     * Default constructor of the client configured with the default {@code maya.*} properties.
+     */
+    public MayaV1Client() {
+        this(new MayaProperties(), null, null);
+    }
+
+    /**
+     * Constructor of the client configured with the given {@code maya.*} properties. The transport, if not given,
+     * and the collaborators shared by all requests are only created on first use.
+     *
+     * @param properties    the {@link MayaProperties}
+     * @param transport     the {@link MayaTransport}, or null to create one of the configured {@link HttpTransport}
+     * @param activeProfile the active Spring profiles, which enable the wire logging of debug profiles
+     */
+    public MayaV1Client(MayaProperties properties, MayaTransport transport, String activeProfile) {
+        this(properties, transport, activeProfile, null);
+    }
+
+    /**
+     * Constructor of the client configured with the given {@code maya.*} properties, which records its requests in
+     * the given {@link MayaMetrics}. The transport, if not given, and the collaborators shared by all requests are
+     * only created on first use.
+     *
+     * @param properties    the {@link MayaProperties}
+     * @param transport     the {@link MayaTransport}, or null to create one of the configured {@link HttpTransport}
+     * @param activeProfile the active Spring profiles, which enable the wire logging of debug profiles
+     * @param metrics       the {@link MayaMetrics}, or null to record no metrics
+     */
+    public MayaV1Client(MayaProperties properties, MayaTransport transport, String activeProfile,
+                        MayaMetrics metrics) {
+        this.root = this;
+        this.properties = properties;
+        this.transport = transport;
+        this.activeProfile = activeProfile;
+        this.metrics = metrics;
+        this.credentials = Credentials.of(properties.getKey().getPublic(), properties.getKey().getSecret());
+        this.compressionStatistics = new CompressionStatistics();
+        if (metrics != null) {
+            metrics.bindTo(compressionStatistics);
+        }
+    }
+
+    /**
+     * Constructor of a view of the given client for another merchant, which shares everything but the keys.
+     *
+     * @param root        the client configured with the {@code maya.*} properties
+     * @param credentials the {@link Credentials} of the merchant
+     */
+    private MayaV1Client(MayaV1Client root, Credentials credentials) {
+        this.root = root;
+        this.properties = root.properties;
+        this.activeProfile = root.activeProfile;
+        this.credentials = credentials;
+    }
 
     /**
      * Creates a credit card checkout payment. This requires the public key as username.
@@ -102,17 +316,7 @@ public class MayaV1Client {
      * @return the {@link CheckoutPOSTResponse} {@link Mono}
      */
     public Mono<CheckoutPOSTResponse> createCheckoutPayment(CheckoutRequest request) {
-        return getWebClient()
-                .post()
-                .uri(CHECKOUT_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(publicKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(CheckoutPOSTResponse.class));
+        return exchangeToMono(CREATE_CHECKOUT_PAYMENT, request, CheckoutPOSTResponse.class);
     }
 
     /**
@@ -122,15 +326,7 @@ public class MayaV1Client {
      * @return the {@link CheckoutGETResponse} {@link Mono}
      */
     public Mono<CheckoutGETResponse> retrieveCheckoutPayment(final String checkoutId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(CHECKOUT_PATH + "/{checkoutId}").build(checkoutId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(CheckoutGETResponse.class));
+        return exchangeToMono(RETRIEVE_CHECKOUT_PAYMENT, null, CheckoutGETResponse.class, checkoutId);
     }
 
     /**
@@ -140,17 +336,7 @@ public class MayaV1Client {
      * @return the {@link CheckoutPOSTResponse} {@link Mono}
      */
     public Mono<SinglePaymentPOSTResponse> createSinglePayment(PaymentRequest request) {
-        return getWebClient()
-                .post()
-                .uri(SINGLE_PAYMENT_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(publicKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(SinglePaymentPOSTResponse.class));
+        return exchangeToMono(CREATE_SINGLE_PAYMENT, request, SinglePaymentPOSTResponse.class);
     }
 
     /**
@@ -160,15 +346,7 @@ public class MayaV1Client {
      * @return the {@link PaymentResponse} {@link Mono}
      */
     public Mono<PaymentResponse> retrievePaymentByPaymentId(final String paymentId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}").build(paymentId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(PaymentResponse.class));
+        return exchangeToMono(RETRIEVE_PAYMENT_BY_PAYMENT_ID, null, PaymentResponse.class, paymentId);
     }
 
     /**
@@ -179,15 +357,8 @@ public class MayaV1Client {
      * @return the {@link PaymentResponse} {@link Mono}
      */
     public Flux<PaymentResponse> retrievePaymentsByRequestReferenceNumber(final String requestReferenceNumber) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_BY_REQUEST_REFERENCE_NUMBER_PATH + "/{requestReferenceNumber}").build(requestReferenceNumber))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToFlux(getResponseFlux(PaymentResponse.class));
+        return exchangeToFlux(RETRIEVE_PAYMENTS_BY_REQUEST_REFERENCE_NUMBER, null, PaymentResponse.class,
+                requestReferenceNumber);
     }
 
     /**
@@ -197,17 +368,7 @@ public class MayaV1Client {
      * @return the {@link WalletLinkPOSTResponse} {@link Mono}
      */
     public Mono<WalletLinkPOSTResponse> createWalletLink(PaymentRequest request) {
-        return getWebClient()
-                .post()
-                .uri(RECURRING_PAYMENT_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(publicKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(WalletLinkPOSTResponse.class));
+        return exchangeToMono(CREATE_WALLET_LINK, request, WalletLinkPOSTResponse.class);
     }
 
     /**
@@ -218,17 +379,7 @@ public class MayaV1Client {
      * @return the {@link PaymentResponse} {@link Mono}
      */
     public Mono<PaymentResponse> createRecurringPayment(final String linkId, PaymentRequest request) {
-        return getWebClient()
-                .post()
-                .uri(uriBuilder -> uriBuilder.path(RECURRING_PAYMENT_PATH + "/{linkId}/execute").build(linkId))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(PaymentResponse.class));
+        return exchangeToMono(CREATE_RECURRING_PAYMENT, request, PaymentResponse.class, linkId);
     }
 
     /**
@@ -238,15 +389,7 @@ public class MayaV1Client {
      * @return the {@link WalletLinkGETResponse} {@link Mono}
      */
     public Mono<WalletLinkGETResponse> retrieveWalletLink(final String linkId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(RECURRING_PAYMENT_PATH + "/{linkId}").build(linkId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(WalletLinkGETResponse.class));
+        return exchangeToMono(RETRIEVE_WALLET_LINK, null, WalletLinkGETResponse.class, linkId);
     }
 
     /**
@@ -256,15 +399,7 @@ public class MayaV1Client {
      * @return the {@link WalletLinkGETResponse} {@link Mono}
      */
     public Mono<WalletLinkGETResponse> deactivateWalletLink(final String linkId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(RECURRING_PAYMENT_PATH + "/{linkId}").build(linkId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(WalletLinkGETResponse.class));
+        return exchangeToMono(DEACTIVATE_WALLET_LINK, null, WalletLinkGETResponse.class, linkId);
     }
 
     /**
@@ -276,17 +411,8 @@ public class MayaV1Client {
      * @return the {@link VoidResponse} {@link Mono}
      */
     public Mono<VoidResponse> voidPaymentByPaymentId(final String paymentId, VoidRequest request) {
-        return getWebClient()
-                .post()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}/voids").build(paymentId))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(VoidResponse.class));
+        return exchangeToMono(VOID_PAYMENT_BY_PAYMENT_ID, request, VoidResponse.class, paymentId)
+                .doOnNext(response -> root.invalidatePayment(credentials, paymentId));
     }
 
     /**
@@ -299,17 +425,10 @@ public class MayaV1Client {
      */
     public Mono<VoidResponse> voidPaymentByRequestReferenceNumber(final String requestReferenceNumber,
                                                                   VoidRequest request) {
-        return getWebClient()
-                .post()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_BY_REQUEST_REFERENCE_NUMBER_PATH + "/{requestReferenceNumber}/voids").build(requestReferenceNumber))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(VoidResponse.class));
+        return exchangeToMono(VOID_PAYMENT_BY_REQUEST_REFERENCE_NUMBER, request, VoidResponse.class,
+                requestReferenceNumber)
+                .doOnNext(response -> root.invalidatePayment(credentials,
+                        Objects.toString(response.getPayment(), null)));
     }
 
     /**
@@ -319,15 +438,7 @@ public class MayaV1Client {
      * @return the {@link VoidResponse} {@link Flux}
      */
     public Flux<VoidResponse> retrieveVoids(final String paymentId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}/voids").build(paymentId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToFlux(getResponseFlux(VoidResponse.class));
+        return exchangeToFlux(RETRIEVE_VOIDS, null, VoidResponse.class, paymentId);
     }
 
     /**
@@ -338,15 +449,7 @@ public class MayaV1Client {
      * @return the {@link VoidResponse} {@link Flux}
      */
     public Mono<VoidResponse> retrieveVoid(final String paymentId, final String voidId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}/voids/{voidId}").build(paymentId, voidId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(VoidResponse.class));
+        return exchangeToMono(RETRIEVE_VOID, null, VoidResponse.class, paymentId, voidId);
     }
 
     /**
@@ -358,17 +461,8 @@ public class MayaV1Client {
      * @return the {@link RefundResponse} {@link Mono}
      */
     public Mono<RefundResponse> refundPaymentByPaymentId(final String paymentId, RefundRequest request) {
-        return getWebClient()
-                .post()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}/refunds").build(paymentId))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(RefundResponse.class));
+        return exchangeToMono(REFUND_PAYMENT_BY_PAYMENT_ID, request, RefundResponse.class, paymentId)
+                .doOnNext(response -> root.invalidatePayment(credentials, paymentId));
     }
 
     /**
@@ -381,17 +475,10 @@ public class MayaV1Client {
      */
     public Mono<RefundResponse> refundPaymentByRequestReferenceNumber(final String requestReferenceNumber,
                                                                       RefundRequest request) {
-        return getWebClient()
-                .post()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_BY_REQUEST_REFERENCE_NUMBER_PATH + "/{paymentId}/refunds").build(requestReferenceNumber))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(RefundResponse.class));
+        return exchangeToMono(REFUND_PAYMENT_BY_REQUEST_REFERENCE_NUMBER, request, RefundResponse.class,
+                requestReferenceNumber)
+                .doOnNext(response -> root.invalidatePayment(credentials,
+                        Objects.toString(response.getPayment(), null)));
     }
 
     /**
@@ -401,15 +488,7 @@ public class MayaV1Client {
      * @return the {@link RefundResponse} {@link Flux}
      */
     public Flux<RefundResponse> retrieveRefunds(final String paymentId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}/refunds").build(paymentId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToFlux(getResponseFlux(RefundResponse.class));
+        return exchangeToFlux(RETRIEVE_REFUNDS, null, RefundResponse.class, paymentId);
     }
 
     /**
@@ -420,15 +499,7 @@ public class MayaV1Client {
      * @return the {@link RefundResponse} {@link Flux}
      */
     public Mono<RefundResponse> retrieveRefund(final String paymentId, final String refundId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_PATH + "/{paymentId}/refunds/{refundId}").build(paymentId, refundId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(RefundResponse.class));
+        return exchangeToMono(RETRIEVE_REFUND, null, RefundResponse.class, paymentId, refundId);
     }
 
     /**
@@ -438,17 +509,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Mono}
      */
     public Mono<WebhookResponse> createCheckoutWebhook(WebhookRequest request) {
-        return getWebClient()
-                .post()
-                .uri(CHECKOUT_WEBHOOK_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(CREATE_CHECKOUT_WEBHOOK, request, WebhookResponse.class);
     }
 
     /**
@@ -457,15 +518,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Flux}
      */
     public Flux<WebhookResponse> retrieveCheckoutWebhooks() {
-        return getWebClient()
-                .get()
-                .uri(CHECKOUT_WEBHOOK_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToFlux(getResponseFlux(WebhookResponse.class));
+        return exchangeToFlux(RETRIEVE_CHECKOUT_WEBHOOKS, null, WebhookResponse.class);
     }
 
     /**
@@ -476,17 +529,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Flux}
      */
     public Mono<WebhookResponse> updateCheckoutWebhook(final String webhookId, WebhookRequest request) {
-        return getWebClient()
-                .put()
-                .uri(uriBuilder -> uriBuilder.path(CHECKOUT_WEBHOOK_PATH + "/{webhookId}").build(webhookId))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(UPDATE_CHECKOUT_WEBHOOK, request, WebhookResponse.class, webhookId);
     }
 
     /**
@@ -496,15 +539,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Mono}
      */
     public Mono<WebhookResponse> deleteCheckoutWebhook(final String webhookId) {
-        return getWebClient()
-                .delete()
-                .uri(uriBuilder -> uriBuilder.path(CHECKOUT_WEBHOOK_PATH + "/{webhookId}").build(webhookId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(DELETE_CHECKOUT_WEBHOOK, null, WebhookResponse.class, webhookId);
     }
 
     /**
@@ -514,17 +549,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Mono}
      */
     public Mono<WebhookResponse> createPaymentWebhook(WebhookRequest request) {
-        return getWebClient()
-                .post()
-                .uri(PAYMENT_WEBHOOK_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(CREATE_PAYMENT_WEBHOOK, request, WebhookResponse.class);
     }
 
     /**
@@ -533,15 +558,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Flux}
      */
     public Flux<WebhookResponse> retrievePaymentWebhooks() {
-        return getWebClient()
-                .get()
-                .uri(PAYMENT_WEBHOOK_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToFlux(getResponseFlux(WebhookResponse.class));
+        return exchangeToFlux(RETRIEVE_PAYMENT_WEBHOOKS, null, WebhookResponse.class);
     }
 
     /**
@@ -551,15 +568,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Mono}
      */
     public Mono<WebhookResponse> retrievePaymentWebhook(final String webhookId) {
-        return getWebClient()
-                .get()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_WEBHOOK_PATH + "/{webhookId}").build(webhookId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(RETRIEVE_PAYMENT_WEBHOOK, null, WebhookResponse.class, webhookId);
     }
 
     /**
@@ -570,17 +579,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Flux}
      */
     public Mono<WebhookResponse> updatePaymentWebhook(final String webhookId, WebhookRequest request) {
-        return getWebClient()
-                .put()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_WEBHOOK_PATH + "/{webhookId}").build(webhookId))
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(UPDATE_PAYMENT_WEBHOOK, request, WebhookResponse.class, webhookId);
     }
 
     /**
@@ -590,15 +589,7 @@ public class MayaV1Client {
      * @return the {@link WebhookResponse} {@link Mono}
      */
     public Mono<WebhookResponse> deletePaymentWebhook(final String webhookId) {
-        return getWebClient()
-                .delete()
-                .uri(uriBuilder -> uriBuilder.path(PAYMENT_WEBHOOK_PATH + "/{webhookId}").build(webhookId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(WebhookResponse.class));
+        return exchangeToMono(DELETE_PAYMENT_WEBHOOK, null, WebhookResponse.class, webhookId);
     }
 
     /**
@@ -608,17 +599,7 @@ public class MayaV1Client {
      * @return the {@link CustomizationResponse} {@link Mono}
      */
     public Mono<CustomizationResponse> customize(CustomizationRequest request) {
-        return getWebClient()
-                .post()
-                .uri(CUSTOMIZATION_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .bodyValue(request)
-                .exchangeToMono(getResponseMono(CustomizationResponse.class));
+        return exchangeToMono(CUSTOMIZE, request, CustomizationResponse.class);
     }
 
     /**
@@ -627,32 +608,644 @@ public class MayaV1Client {
      * @return the {@link Mono} with no content
      */
     public Mono<Void> removeCustomizations() {
-        return getWebClient()
-                .delete()
-                .uri(CUSTOMIZATION_PATH)
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(httpHeaders -> {
-                    httpHeaders.add("Authorization", AuthorizationHelper.getAuthorization(secretKey));
-                    httpHeaders.add("X-Idempotency-Key", UUID.randomUUID().toString());
-                })
-                .exchangeToMono(getResponseMono(Void.class));
+        return exchangeToMono(REMOVE_CUSTOMIZATIONS, null, Void.class);
+    }
+
+    /**
+     * Returns the circuit breaker of the given {@link EndpointFamily} if enabled, e.g. to subscribe to its state
+     * transitions through {@link CircuitBreaker#getEventPublisher()}.
+     *
+     * @param family the {@link EndpointFamily}
+     * @return the {@link CircuitBreaker} {@link Optional}
+     */
+    public Optional<CircuitBreaker> getCircuitBreaker(EndpointFamily family) {
+        if (root != this) {
+            return root.getCircuitBreaker(family);
+        }
+        if (webClient == null) {
+            initialize();
+        }
+
+        return Optional.ofNullable(circuitBreakers.get(family));
+    }
+
+    /**
+     * Creates the transport and the collaborators shared by all requests, then warms up the transport, so that the
+     * first request does not pay for them. If {@code maya.warm-up.connections} is positive, as many concurrent
+     * authenticated lookups of the checkout webhooks then resolve the payment gateway address and open the pooled
+     * connections, including their TLS handshakes, and fail if the gateway rejects the keys. The warm-up fails with a
+     * {@link TimeoutException} after {@code maya.warm-up.timeout}, cancelling the lookups still in flight.
+     *
+     * @return the {@link Mono} that completes when warmed up
+     */
+    public Mono<Void> warmUp() {
+        if (root != this) {
+            return root.warmUp();
+        }
+
+        Duration timeout = properties.getWarmUp().getTimeout();
+        Mono<Void> warmUp = Mono.defer(() -> {
+            getWebClient();
+            Mono<Void> transportWarmUp = transport.warmUp();
+            int connections = properties.getWarmUp().getConnections();
+            if (connections <= 0) {
+                return transportWarmUp;
+            }
+
+            return transportWarmUp.thenMany(Flux.range(0, connections)
+                            .flatMap(i -> prepare(credentials, RETRIEVE_CHECKOUT_WEBHOOKS, null, null,
+                                    UUID.randomUUID().toString())
+                                    .exchangeToFlux(getResponseFlux(WebhookResponse.class)), connections))
+                    .then();
+        });
+
+        return timeout == null ? warmUp : warmUp.timeout(timeout);
+    }
+
+    /**
+     * Returns the {@link CompressionStatistics} of the requests and responses of this client and its views.
+     *
+     * @return the {@link CompressionStatistics}
+     */
+    public CompressionStatistics getCompressionStatistics() {
+        return root.compressionStatistics;
+    }
+
+    /**
+     * Releases the pooled connections held by this client.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (transport != null && transportCreated) {
+            transport.dispose();
+        }
+        if (wireLogFilter != null) {
+            wireLogFilter.dispose();
+        }
     }
 
     private WebClient getWebClient() {
-        boolean debugMode = Pattern.compile("local|dev|test").matcher(activeProfile).matches();
-        if (debugMode) {
-            HttpClient httpClient = HttpClient.create()
-                    .wiretap("reactor.netty.http.client.HttpClient", LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
-
-            return WebClient.builder()
-                    .clientConnector(new ReactorClientHttpConnector(httpClient))
-                    .baseUrl(paymentGatewayUrl)
-                    .build();
+        if (webClient == null) {
+            initialize();
+        }
+
+        return webClient;
+    }
+
+    private RetryPolicy getRetryPolicy() {
+        if (webClient == null) {
+            initialize();
         }
 
+        return retryPolicy;
+    }
+
+    /**
+     * Creates the collaborators shared by all requests on first use, after the configuration has been injected.
+     */
+    private synchronized void initialize() {
+        if (webClient == null) {
+            MayaProperties.Retry retry = properties.getRetry();
+            retryPolicy = new RetryPolicy(retry.getMaxAttempts(), retry.getMinBackoff(), retry.getMaxBackoff(),
+                    retry.getJitter());
+            circuitBreakers = createCircuitBreakers();
+            concurrencyLimiters = createConcurrencyLimiters();
+            rateLimiters = createRateLimiters();
+            hedgers = createHedgers();
+            singleFlight = properties.getSingleFlight().isEnabled() ? new SingleFlight() : null;
+            MayaProperties.Cache cache = properties.getCache();
+            responseCache = cache.isEnabled()
+                    ? new ResponseCache(cache.getMaximumSize(), cache.getTerminalTtl(), cache.getPendingTtl(),
+                    cache.getRevalidationTtl()) : null;
+            // assigned last as it guards the initialization
+            webClient = createWebClient();
+        }
+    }
+
+    private WebClient createWebClient() {
+        if (transport == null) {
+            transport = createTransport();
+            transportCreated = true;
+        }
+
+        ObjectMapper objectMapper = JsonCodecs.createObjectMapper();
+        DataSize codecMaxInMemorySize = properties.getCodec().getMaxInMemorySize();
+        int maxInMemorySize = codecMaxInMemorySize == null
+                ? DEFAULT_MAX_IN_MEMORY_SIZE : Math.toIntExact(codecMaxInMemorySize.toBytes());
+        MayaProperties.WireLog wireLog = properties.getWireLog();
+        MayaProperties.Compression compression = properties.getCompression();
+
         return WebClient.builder()
-                .baseUrl(paymentGatewayUrl)
+                .clientConnector(transport.createConnector(properties.getPayment().getGateway().getUrl()))
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                    configurer.defaultCodecs().jackson2JsonDecoder(JsonCodecs.createDecoder(objectMapper,
+                            maxInMemorySize));
+                    configurer.defaultCodecs().jackson2JsonEncoder(JsonCodecs.createEncoder(objectMapper));
+                })
+                .filters(filters -> {
+                    // logs the request bodies before compression
+                    if (wireLog.isEnabled()
+                            || activeProfile != null && DEBUG_PROFILES.matcher(activeProfile).matches()) {
+                        wireLogFilter = new WireLogFilter(wireLog.getSampleRate(), wireLog.getMaxBodySize() == null
+                                ? DEFAULT_WIRE_LOG_MAX_BODY_SIZE : Math.toIntExact(wireLog.getMaxBodySize().toBytes()),
+                                wireLog.getQueueSize() > 0 ? wireLog.getQueueSize() : DEFAULT_WIRE_LOG_QUEUE_SIZE);
+                        filters.add(wireLogFilter);
+                    }
+                    if (compression.isRequestEnabled()) {
+                        filters.add(new RequestCompressionFilter(compression.getRequestThreshold() == null
+                                ? 0 : Math.toIntExact(compression.getRequestThreshold().toBytes()),
+                                compressionStatistics));
+                    }
+                    // counts the request bodies as sent
+                    if (metrics != null) {
+                        filters.add(metrics.filter());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Creates the {@link MayaTransport} of the configured {@link HttpTransport}.
+     *
+     * @return the {@link MayaTransport}
+     */
+    private MayaTransport createTransport() {
+        MayaProperties.Http http = properties.getHttp();
+        MayaProperties.Timeout timeout = properties.getTimeout();
+        boolean compress = properties.getCompression().isResponseEnabled();
+        MayaProperties.Tls tls = properties.getTls();
+        if (http.getTransport() == HttpTransport.JDK) {
+            if (compress) {
+                log.warn("Compressed responses are not supported by the JDK transport");
+            }
+            if (tls.getProvider() == TlsProvider.OPENSSL) {
+                log.warn("OpenSSL is not supported by the JDK transport");
+            }
+
+            return JdkHttpClientTransport.builder()
+                    .connectTimeout(timeout.getConnect())
+                    .protocolVersion(http.getProtocol())
+                    .build();
+        }
+
+        MayaProperties.Pool pool = properties.getConnection().getPool();
+        MayaProperties.Dns dns = properties.getDns();
+        return ReactorNettyTransport.builder()
+                .poolName(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .connectTimeout(timeout.getConnect())
+                .protocolVersion(http.getProtocol())
+                .compress(compress)
+                .compressionStatistics(compressionStatistics)
+                .dnsCache(dns.isEnabled())
+                .dnsMinTtl(dns.getMinTtl())
+                .dnsMaxTtl(dns.getMaxTtl())
+                .dnsNegativeTtl(dns.getNegativeTtl())
+                .tlsProvider(tls.getProvider())
+                .tlsSessionCacheSize(tls.getSessionCacheSize())
+                .tlsSessionTimeout(tls.getSessionTimeout())
+                .metrics(metrics)
+                .build();
+    }
+
+    /**
+     * Creates a circuit breaker per {@link EndpointFamily} so that an outage of one family fails fast without
+     * affecting the others. Client errors and calls rejected by the client do not count as failures.
+     *
+     * @return the {@link CircuitBreaker}s, which is empty if disabled
+     */
+    private Map<EndpointFamily, CircuitBreaker> createCircuitBreakers() {
+        MayaProperties.CircuitBreaker settings = properties.getCircuitBreaker();
+        if (!settings.isEnabled()) {
+            return Collections.emptyMap();
+        }
+
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedNumberOfCallsInHalfOpenState())
+                .recordException(throwable -> !(throwable instanceof ApiRejectedException)
+                        && !(throwable instanceof ApiException apiException
+                        && apiException.getApiError().getStatus() != null
+                        && apiException.getApiError().getStatus().is4xxClientError()))
                 .build();
+
+        Map<EndpointFamily, CircuitBreaker> map = new EnumMap<>(EndpointFamily.class);
+        for (EndpointFamily family : EndpointFamily.values()) {
+            CircuitBreaker circuitBreaker = CircuitBreaker.of("maya-" + family.name().toLowerCase(Locale.ROOT), config);
+            circuitBreaker.getEventPublisher()
+                    .onStateTransition(event -> log.warn("Circuit breaker {} transitioned from {} to {}",
+                            event.getCircuitBreakerName(), event.getStateTransition().getFromState(),
+                            event.getStateTransition().getToState()));
+            map.put(family, circuitBreaker);
+        }
+
+        return map;
+    }
+
+    /**
+     * Creates an adaptive concurrency limiter per {@link EndpointFamily}.
+     *
+     * @return the {@link ConcurrencyLimiter}s, which is empty if disabled
+     */
+    private Map<EndpointFamily, ConcurrencyLimiter> createConcurrencyLimiters() {
+        MayaProperties.ConcurrencyLimit concurrencyLimit = properties.getConcurrencyLimit();
+        if (!concurrencyLimit.isEnabled()) {
+            return Collections.emptyMap();
+        }
+
+        Map<EndpointFamily, ConcurrencyLimiter> map = new EnumMap<>(EndpointFamily.class);
+        for (EndpointFamily family : EndpointFamily.values()) {
+            map.put(family, new ConcurrencyLimiter("maya-" + family.name().toLowerCase(Locale.ROOT),
+                    concurrencyLimit.getInitialLimit(), concurrencyLimit.getMinLimit(), concurrencyLimit.getMaxLimit(),
+                    concurrencyLimit.getBackoffRatio(), concurrencyLimit.getLatencyThreshold(),
+                    concurrencyLimit.getMaxQueueSize(), concurrencyLimit.getMaxWait()));
+        }
+
+        return map;
+    }
+
+    /**
+     * Creates the holders of the token buckets per {@link EndpointFamily}, whose buckets are created per merchant
+     * key on first use.
+     *
+     * @return the {@link TokenBucketRateLimiter}s by merchant key, which is empty if disabled
+     */
+    private Map<EndpointFamily, ConcurrentMap<String, TokenBucketRateLimiter>> createRateLimiters() {
+        if (!properties.getRateLimit().isEnabled()) {
+            return Collections.emptyMap();
+        }
+
+        Map<EndpointFamily, ConcurrentMap<String, TokenBucketRateLimiter>> map = new EnumMap<>(EndpointFamily.class);
+        for (EndpointFamily family : EndpointFamily.values()) {
+            map.put(family, new ConcurrentHashMap<>());
+        }
+
+        return map;
+    }
+
+    /**
+     * Creates the {@link Hedger} per {@link EndpointFamily} so that each hedges after its own latency percentile.
+     *
+     * @return the {@link Hedger}s, which is empty if disabled
+     */
+    private Map<EndpointFamily, Hedger> createHedgers() {
+        MayaProperties.Hedge hedge = properties.getHedge();
+        if (!hedge.isEnabled()) {
+            return Collections.emptyMap();
+        }
+
+        Map<EndpointFamily, Hedger> map = new EnumMap<>(EndpointFamily.class);
+        for (EndpointFamily family : EndpointFamily.values()) {
+            map.put(family, new Hedger(hedge.getPercentile(),
+                    hedge.getMinDelay() == null ? Duration.ZERO : hedge.getMinDelay(), hedge.getBudgetPercent(),
+                    hedge.getWindowSize()));
+        }
+
+        return map;
+    }
+
+    /**
+     * Removes the cached payment and checkout with the given ID after the payment has been voided or refunded.
+     *
+     * @param credentials the {@link Credentials} of the merchant
+     * @param paymentId   the payment ID, which is also the checkout ID, as given to the lookups
+     */
+    private void invalidatePayment(Credentials credentials, final String paymentId) {
+        if (responseCache != null && paymentId != null) {
+            List<String> uriVariables = List.of(paymentId);
+            responseCache.invalidate(new RequestKey(credentials.getKey(RETRIEVE_PAYMENT_BY_PAYMENT_ID
+                    .isSecretKeyRequired()), RETRIEVE_PAYMENT_BY_PAYMENT_ID, uriVariables));
+            responseCache.invalidate(new RequestKey(credentials.getKey(RETRIEVE_CHECKOUT_PAYMENT
+                    .isSecretKeyRequired()), RETRIEVE_CHECKOUT_PAYMENT, uriVariables));
+        }
+    }
+
+    /**
+     * Creates a view of this client for the merchant with the given keys, which shares the connection pool and
+     * every other resource of this client.
+     *
+     * @param publicKey the public key
+     * @param secretKey the secret key
+     * @return the {@link MayaV1Client}
+     */
+    MayaV1Client forMerchant(final String publicKey, final String secretKey) {
+        return forMerchant(publicKey, secretKey, null);
+    }
+
+    /**
+     * Creates a view of this client for the merchant with the given keys and rate limit, which shares the connection
+     * pool and every other resource of this client.
+     *
+     * @param publicKey        the public key
+     * @param secretKey        the secret key
+     * @param permitsPerSecond the rate limit of each key and endpoint family, or null for the {@code maya.rate-limit.*}
+     *                         properties
+     * @return the {@link MayaV1Client}
+     */
+    MayaV1Client forMerchant(final String publicKey, final String secretKey, Double permitsPerSecond) {
+        return new MayaV1Client(root, Credentials.of(publicKey, secretKey, permitsPerSecond));
+    }
+
+    /**
+     * Releases the rate limits and cached responses held for the keys of the given view, except those of the keys
+     * still used by this client or any of the given views, e.g. a merchant registered again with the same keys.
+     *
+     * @param view  the view created by {@link #forMerchant(String, String)}
+     * @param views the views still in use
+     */
+    void release(MayaV1Client view, Collection<MayaV1Client> views) {
+        Set<String> keys = view.credentials.getKeys();
+        keys.removeAll(credentials.getKeys());
+        views.forEach(other -> keys.removeAll(other.credentials.getKeys()));
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (rateLimiters != null) {
+            rateLimiters.values().forEach(limiters -> limiters.keySet().removeAll(keys));
+        }
+        if (responseCache != null) {
+            responseCache.invalidateAll(key -> key instanceof RequestKey requestKey
+                    && keys.contains(requestKey.merchantKey()));
+        }
+    }
+
+    private TokenBucketRateLimiter getRateLimiter(Credentials credentials, RequestTemplate template) {
+        EndpointFamily family = template.getFamily();
+        ConcurrentMap<String, TokenBucketRateLimiter> limiters = rateLimiters.get(family);
+        if (limiters == null) {
+            return null;
+        }
+
+        MayaProperties.RateLimit rateLimit = properties.getRateLimit();
+        double permitsPerSecond = credentials.permitsPerSecond() == null
+                ? rateLimit.getPermitsPerSecond(family) : credentials.permitsPerSecond();
+        String key = credentials.getKey(template.isSecretKeyRequired());
+        TokenBucketRateLimiter limiter = limiters.get(key);
+        if (limiter != null && limiter.getPermitsPerSecond() == permitsPerSecond) {
+            return limiter;
+        }
+
+        // a merchant registered again with another rate replaces the bucket of its keys
+        return limiters.compute(key, (k, current) -> current != null
+                && current.getPermitsPerSecond() == permitsPerSecond ? current
+                : new TokenBucketRateLimiter("maya-" + family.name().toLowerCase(Locale.ROOT), permitsPerSecond,
+                rateLimit.getMaxWait()));
+    }
+
+    private <T> Mono<T> exchangeToMono(RequestTemplate template, Object body, Class<T> clazz,
+                                       final String... uriVariables) {
+        return root.exchangeToMono(credentials, template, body, clazz, uriVariables);
+    }
+
+    private <T> Mono<T> exchangeToMono(Credentials credentials, RequestTemplate template, Object body,
+                                       Class<T> clazz, final String... uriVariables) {
+        return Mono.deferContextual(context -> {
+            RetryPolicy policy = getRetryPolicy();
+            if (!template.isReadOnly()) {
+                return callMono(credentials, template, body, getResponseMono(clazz), null, policy, context,
+                        uriVariables);
+            }
+
+            RequestKey key = new RequestKey(credentials.getKey(template.isSecretKeyRequired()), template,
+                    Arrays.asList(uriVariables));
+            Supplier<Mono<T>> call;
+            if (responseCache == null) {
+                call = () -> callMono(credentials, template, body, getResponseMono(clazz), null, policy, context,
+                        uriVariables);
+            } else {
+                T response = responseCache.get(key, clazz);
+                if (response != null) {
+                    return Mono.just(response);
+                }
+
+                ResponseCache.Entry entry = responseCache.getEntry(key);
+                ResponseCache.Entry stale = entry != null && clazz.isInstance(entry.response()) ? entry : null;
+                call = () -> callMono(credentials, template, body, getValidatedResponseMono(clazz, stale),
+                        getConditionalHeaders(stale), policy, context, uriVariables)
+                        .map(validated -> {
+                            responseCache.put(key, validated.response(), validated.eTag(),
+                                    validated.lastModified());
+                            return validated.response();
+                        });
+            }
+
+            // concurrent lookups of the same resource share the call, including the deadline, of the first caller
+            return singleFlight == null ? call.get() : singleFlight.execute(key, call);
+        });
+    }
+
+    private <T> Mono<T> callMono(Credentials credentials, RequestTemplate template, Object body,
+                                 Function<ClientResponse, Mono<T>> responseFunction, HttpHeaders headers,
+                                 RetryPolicy policy, ContextView context, final String... uriVariables) {
+        // pinned for every attempt so that the gateway recognizes retries of the same request
+        String idempotencyKey = UUID.randomUUID().toString();
+        Mono<T> mono = Mono.defer(() -> attemptMono(credentials, template, body, responseFunction, headers,
+                idempotencyKey, context, uriVariables));
+
+        // only lookups are hedged, as a second attempt of anything else, even a GET, may not be read-only
+        Hedger hedger = hedgers.get(template.getFamily());
+        if (hedger != null && template.isReadOnly()) {
+            mono = hedger.hedge(mono);
+        }
+
+        if (!policy.isEnabled()) {
+            return mono;
+        }
+
+        Optional<Deadline> deadline = Deadline.from(context);
+        return mono.retryWhen(policy.toRetry(() -> deadline.map(d -> !d.isExpired()).orElse(true)));
+    }
+
+    private <T> Flux<T> exchangeToFlux(RequestTemplate template, Object body, Class<T> clazz,
+                                       final String... uriVariables) {
+        return root.exchangeToFlux(credentials, template, body, clazz, uriVariables);
+    }
+
+    private <T> Flux<T> exchangeToFlux(Credentials credentials, RequestTemplate template, Object body,
+                                       Class<T> clazz, final String... uriVariables) {
+        return Flux.deferContextual(context -> {
+            // pinned for every attempt so that the gateway recognizes retries of the same request
+            String idempotencyKey = UUID.randomUUID().toString();
+            AtomicBoolean emitted = new AtomicBoolean();
+            Flux<T> flux = Flux.defer(() -> attemptFlux(credentials, template, body, clazz, idempotencyKey, context,
+                            uriVariables))
+                    .doOnNext(element -> emitted.set(true));
+
+            RetryPolicy policy = getRetryPolicy();
+            if (!policy.isEnabled()) {
+                return flux;
+            }
+
+            // a retry after the first element would emit duplicates
+            Optional<Deadline> deadline = Deadline.from(context);
+            return flux.retryWhen(policy.toRetry(() -> !emitted.get()
+                    && deadline.map(d -> !d.isExpired()).orElse(true)));
+        });
+    }
+
+    private <T> Mono<T> attemptMono(Credentials credentials, RequestTemplate template, Object body,
+                                    Function<ClientResponse, Mono<T>> responseFunction, HttpHeaders headers,
+                                    final String idempotencyKey, ContextView context, final String... uriVariables) {
+        Duration timeout = getTimeout(template.getFamily(), context);
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            return Mono.error(getTimeoutException(template, timeout, null));
+        }
+
+        // the waits for a token and a permit are spent from the same budget as the exchange
+        Deadline budget = timeout == null ? null : Deadline.after(timeout);
+        Mono<T> mono = prepare(credentials, template, body, headers, idempotencyKey, uriVariables)
+                .exchangeToMono(responseFunction);
+        if (budget != null) {
+            Mono<T> exchange = mono;
+            mono = Mono.defer(() -> budget.isExpired() ? Mono.error(new TimeoutException())
+                    : exchange.timeout(budget.remaining()));
+        }
+
+        mono = mono.onErrorMap(this::isTimeout, e -> getTimeoutException(template, timeout, e));
+        if (metrics != null) {
+            mono = metrics.instrument(template, mono);
+        }
+
+        ConcurrencyLimiter concurrencyLimiter = concurrencyLimiters.get(template.getFamily());
+        if (concurrencyLimiter != null) {
+            mono = concurrencyLimiter.limit(mono, budget);
+        }
+
+        TokenBucketRateLimiter rateLimiter = getRateLimiter(credentials, template);
+        if (rateLimiter != null) {
+            mono = rateLimiter.limit(mono, budget);
+        }
+
+        mono = mono.onErrorMap(this::isTimeout, e -> getTimeoutException(template, timeout, e));
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(template.getFamily());
+        if (circuitBreaker == null) {
+            return mono;
+        }
+
+        return mono.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, e -> getRejectedException(template, e));
+    }
+
+    private <T> Flux<T> attemptFlux(Credentials credentials, RequestTemplate template, Object body, Class<T> clazz,
+                                    final String idempotencyKey, ContextView context, final String... uriVariables) {
+        Duration timeout = getTimeout(template.getFamily(), context);
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            return Flux.error(getTimeoutException(template, timeout, null));
+        }
+
+        // the waits for a token and a permit are spent from the same budget as the exchange
+        Deadline budget = timeout == null ? null : Deadline.after(timeout);
+        Flux<T> flux = prepare(credentials, template, body, null, idempotencyKey, uriVariables)
+                .exchangeToFlux(getResponseFlux(clazz));
+        if (budget != null) {
+            // every element must arrive within the budget, not within the timeout after the previous one
+            Flux<T> exchange = flux;
+            flux = Flux.defer(() -> budget.isExpired() ? Flux.error(new TimeoutException())
+                    : exchange.timeout(Mono.delay(budget.remaining()), element -> Mono.delay(budget.remaining())));
+        }
+
+        flux = flux.onErrorMap(this::isTimeout, e -> getTimeoutException(template, timeout, e));
+        if (metrics != null) {
+            flux = metrics.instrument(template, flux);
+        }
+
+        ConcurrencyLimiter concurrencyLimiter = concurrencyLimiters.get(template.getFamily());
+        if (concurrencyLimiter != null) {
+            flux = concurrencyLimiter.limit(flux, budget);
+        }
+
+        TokenBucketRateLimiter rateLimiter = getRateLimiter(credentials, template);
+        if (rateLimiter != null) {
+            flux = rateLimiter.limit(flux, budget);
+        }
+
+        flux = flux.onErrorMap(this::isTimeout, e -> getTimeoutException(template, timeout, e));
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(template.getFamily());
+        if (circuitBreaker == null) {
+            return flux;
+        }
+
+        return flux.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, e -> getRejectedException(template, e));
+    }
+
+    private WebClient.RequestHeadersSpec<?> prepare(Credentials credentials, RequestTemplate template, Object body,
+                                                    HttpHeaders headers, final String idempotencyKey,
+                                                    final String... uriVariables) {
+        String authorization = credentials.getAuthorization(template.isSecretKeyRequired());
+        WebClient.RequestBodySpec spec = getWebClient()
+                .method(template.getMethod())
+                .uri(template.expand(properties.getPayment().getGateway().getUrl(), uriVariables))
+                .headers(httpHeaders -> {
+                    httpHeaders.addAll(template.getHeaders());
+                    httpHeaders.add(HttpHeaders.AUTHORIZATION, authorization);
+                    httpHeaders.add("X-Idempotency-Key", idempotencyKey);
+                    if (headers != null) {
+                        httpHeaders.addAll(headers);
+                    }
+                });
+
+        return body == null ? spec : spec.bodyValue(body);
+    }
+
+    /**
+     * Returns the configured timeout of the given {@link EndpointFamily}, capped by the remaining time of the
+     * {@link Deadline} in the given {@link ContextView}, if any.
+     *
+     * @param family  the {@link EndpointFamily}
+     * @param context the {@link ContextView}
+     * @return the timeout, or null if there is none
+     */
+    private Duration getTimeout(EndpointFamily family, ContextView context) {
+        Duration timeout = properties.getTimeout().getTimeout(family);
+
+        Optional<Deadline> deadline = Deadline.from(context);
+        if (deadline.isPresent()) {
+            Duration remaining = deadline.get().remaining();
+            if (timeout == null || remaining.compareTo(timeout) < 0) {
+                return remaining;
+            }
+        }
+
+        return timeout;
+    }
+
+    private ApiTimeoutException getTimeoutException(RequestTemplate template, Duration timeout, Throwable cause) {
+        Duration elapsed = timeout;
+        if (cause instanceof WebClientRequestException && transport.isConnectTimeout(cause.getCause())) {
+            elapsed = properties.getTimeout().getConnect();
+        }
+
+        return new ApiTimeoutException(elapsed, template.getMethod() + " " + template.getPath()
+                + " timed out after " + elapsed, cause);
+    }
+
+    private static ApiRejectedException getRejectedException(RequestTemplate template, Throwable cause) {
+        return new ApiRejectedException(template.getMethod() + " " + template.getPath() + " was rejected: "
+                + cause.getMessage(), cause);
+    }
+
+    private boolean isTimeout(Throwable throwable) {
+        if (throwable instanceof WebClientRequestException) {
+            Throwable cause = throwable.getCause();
+            return cause instanceof TimeoutException || transport.isTimeout(cause);
+        }
+
+        return throwable instanceof TimeoutException;
     }
 
     private <T> Function<ClientResponse, Mono<T>> getResponseMono(Class<T> clazz) {
@@ -663,9 +1256,8 @@ public class MayaV1Client {
             } else if (clientResponse.statusCode().isError()) {
                 return clientResponse
                         .bodyToMono(ErrorResponse.class)
-                        .switchIfEmpty(Mono.error(new ApiException(clientResponse.statusCode(), null, null, null)))
-                        .flatMap(body -> Mono.error(new ApiException(clientResponse.statusCode(), body.getCode(),
-                                body.getMessage(), null)));
+                        .switchIfEmpty(Mono.error(() -> getApiException(clientResponse, null)))
+                        .flatMap(body -> Mono.error(getApiException(clientResponse, body)));
             } else {
                 return clientResponse
                         .createException()
@@ -674,6 +1266,61 @@ public class MayaV1Client {
         };
     }
 
+    /**
+     * Returns the function which reads a response along with its validators, or serves the stale response if the
+     * gateway responds with 304 Not Modified to a conditional request.
+     *
+     * @param clazz the type of the response
+     * @param stale the stale {@link ResponseCache.Entry} being revalidated, if any
+     * @param <T>   the type of the response
+     * @return the {@link Function}
+     */
+    private <T> Function<ClientResponse, Mono<Validated<T>>> getValidatedResponseMono(Class<T> clazz,
+                                                                                   ResponseCache.Entry stale) {
+        Function<ClientResponse, Mono<T>> responseMono = getResponseMono(clazz);
+        return clientResponse -> {
+            HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+            String eTag = headers.getETag();
+            String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+            if (stale != null && HttpStatus.NOT_MODIFIED.value() == clientResponse.statusCode().value()) {
+                // a 304 may omit the validators, in which case the stored ones still apply
+                return clientResponse.releaseBody()
+                        .thenReturn(new Validated<>(clazz.cast(stale.response()),
+                                eTag == null ? stale.eTag() : eTag,
+                                lastModified == null ? stale.lastModified() : lastModified));
+            }
+
+            return responseMono.apply(clientResponse)
+                    .map(response -> new Validated<>(response, eTag, lastModified));
+        };
+    }
+
+    private static HttpHeaders getConditionalHeaders(ResponseCache.Entry stale) {
+        if (stale == null || !stale.hasValidators()) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (stale.eTag() != null) {
+            headers.setIfNoneMatch(stale.eTag());
+        }
+        if (stale.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, stale.lastModified());
+        }
+
+        return headers;
+    }
+
+    /**
+     * Returns the {@link Function} that decodes the JSON array of a successful response into its elements. Each
+     * element is emitted as soon as it is parsed, with at most the maximum in-memory size buffered per element, and
+     * the body is read as the subscriber requests more, so the memory per call does not grow with the length of the
+     * array. Cancelling, e.g. with {@code take(1)}, closes the connection instead of reading the rest of the body.
+     *
+     * @param clazz the type of the elements
+     * @param <T>   the type of the elements
+     * @return the {@link Function}
+     */
     private <T> Function<ClientResponse, Flux<T>> getResponseFlux(Class<T> clazz) {
         return clientResponse -> {
             if (HttpStatus.OK == clientResponse.statusCode()) {
@@ -682,10 +1329,58 @@ public class MayaV1Client {
             } else {
                 return clientResponse
                         .bodyToFlux(ErrorResponse.class)
-                        .switchIfEmpty(Mono.error(new ApiException(clientResponse.statusCode(), null, null, null)))
-                        .flatMap(body -> Mono.error(new ApiException(clientResponse.statusCode(), body.getCode(),
-                                body.getMessage(), null)));
+                        .switchIfEmpty(Mono.error(() -> getApiException(clientResponse, null)))
+                        .flatMap(body -> Mono.error(getApiException(clientResponse, body)));
             }
         };
     }
+
+    private static ApiException getApiException(ClientResponse clientResponse, ErrorResponse body) {
+        Duration retryAfter = RetryAfterHelper.parse(clientResponse.headers().asHttpHeaders()
+                .getFirst(HttpHeaders.RETRY_AFTER));
+
+        return body == null
+                ? new ApiException(clientResponse.statusCode(), null, null, retryAfter, null)
+                : new ApiException(clientResponse.statusCode(), body.getCode(), body.getMessage(), retryAfter, null);
+    }
+
+    private record Validated<T>(T response, String eTag, String lastModified) {
+    }
+
+    private record RequestKey(String merchantKey, RequestTemplate template, List<String> uriVariables) {
+    }
+
+    /**
+     * The keys of a merchant along with their encoded Authorization headers and rate limit.
+     *
+     * @param publicKey           the public key
+     * @param secretKey           the secret key
+     * @param publicAuthorization the Authorization header of the public key
+     * @param secretAuthorization the Authorization header of the secret key
+     * @param permitsPerSecond    the rate limit of each key and endpoint family, or null for the properties
+     */
+    private record Credentials(String publicKey, String secretKey, String publicAuthorization,
+                               String secretAuthorization, Double permitsPerSecond) {
+
+        static Credentials of(final String publicKey, final String secretKey) {
+            return of(publicKey, secretKey, null);
+        }
+
+        static Credentials of(final String publicKey, final String secretKey, Double permitsPerSecond) {
+            return new Credentials(publicKey, secretKey, AuthorizationHelper.getAuthorization(publicKey),
+                    AuthorizationHelper.getAuthorization(secretKey), permitsPerSecond);
+        }
+
+        String getKey(boolean secret) {
+            return String.valueOf(secret ? secretKey : publicKey);
+        }
+
+        Set<String> getKeys() {
+            return new HashSet<>(List.of(getKey(false), getKey(true)));
+        }
+
+        String getAuthorization(boolean secret) {
+            return secret ? secretAuthorization : publicAuthorization;
+        }
+    }
 }
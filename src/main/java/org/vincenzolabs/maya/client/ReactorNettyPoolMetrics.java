@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The {@link ConnectionProvider.MeterRegistrar} of the gauges of a Reactor Netty connection pool per remote address,
+ * tagged by pool and remote address:
+ * <ul>
+ *     <li>{@code maya.client.pool.active}, the connections in use;</li>
+ *     <li>{@code maya.client.pool.idle}, the idle connections;</li>
+ *     <li>{@code maya.client.pool.pending}, the requests waiting for a connection.</li>
+ * </ul>
+ * Unlike {@link MayaMetrics}, this depends on Reactor Netty, and is only loaded by the {@link ReactorNettyTransport}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class ReactorNettyPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    static final String POOL_ACTIVE = "maya.client.pool.active";
+
+    static final String POOL_IDLE = "maya.client.pool.idle";
+
+    static final String POOL_PENDING = "maya.client.pool.pending";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, List<Meter>> poolMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param registry the {@link MeterRegistry}
+     */
+    ReactorNettyPoolMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void registerMetrics(final String poolName, final String id, SocketAddress remoteAddress,
+                                ConnectionPoolMetrics metrics) {
+        Tags tags = Tags.of("pool", poolName, "remote", getRemote(remoteAddress));
+        poolMeters.put(id + remoteAddress, List.of(
+                registerPoolGauge(POOL_ACTIVE, "The connections in use", tags, metrics,
+                        ConnectionPoolMetrics::acquiredSize),
+                registerPoolGauge(POOL_IDLE, "The idle connections", tags, metrics,
+                        ConnectionPoolMetrics::idleSize),
+                registerPoolGauge(POOL_PENDING, "The requests waiting for a connection", tags, metrics,
+                        ConnectionPoolMetrics::pendingAcquireSize)));
+    }
+
+    @Override
+    public void deRegisterMetrics(final String poolName, final String id, SocketAddress remoteAddress) {
+        List<Meter> meters = poolMeters.remove(id + remoteAddress);
+        if (meters != null) {
+            meters.forEach(registry::remove);
+        }
+    }
+
+    private Meter registerPoolGauge(final String name, final String description, Tags tags,
+                                    ConnectionPoolMetrics metrics, ToDoubleFunction<ConnectionPoolMetrics> function) {
+        return Gauge.builder(name, metrics, function)
+                .description(description + " of the pool to the Maya payment gateway")
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Returns the host and port of the given address, without the resolved IP address, which may change.
+     *
+     * @param remoteAddress the {@link SocketAddress}
+     * @return the host and port
+     */
+    private static String getRemote(SocketAddress remoteAddress) {
+        return remoteAddress instanceof InetSocketAddress address
+                ? address.getHostString() + ":" + address.getPort() : String.valueOf(remoteAddress);
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.vincenzolabs.maya.enumeration.HttpProtocolVersion;
+import org.vincenzolabs.maya.enumeration.TlsProvider;
+import reactor.core.publisher.Mono;
+import reactor.netty.NettyPipeline;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider.ProtocolSslContextSpec;
+
+import javax.net.ssl.SSLException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * The {@link MayaTransport} on Reactor Netty with a dedicated connection pool. Settings that are not configured
+ * fall back to the Reactor Netty defaults.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@Slf4j
+@Builder
+public final class ReactorNettyTransport implements MayaTransport {
+
+    /**
+     * The name of the connection pool, which tags its gauges, or null for {@code maya}.
+     */
+    private final String poolName;
+
+    private final int maxConnections;
+
+    private final int pendingAcquireMaxCount;
+
+    private final Duration pendingAcquireTimeout;
+
+    private final Duration maxIdleTime;
+
+    private final Duration maxLifeTime;
+
+    private final Duration evictInBackground;
+
+    private final Duration connectTimeout;
+
+    private final HttpProtocolVersion protocolVersion;
+
+    private final boolean compress;
+
+    private final CompressionStatistics compressionStatistics;
+
+    private final boolean dnsCache;
+
+    private final Duration dnsMinTtl;
+
+    private final Duration dnsMaxTtl;
+
+    private final Duration dnsNegativeTtl;
+
+    private final TlsProvider tlsProvider;
+
+    private final long tlsSessionCacheSize;
+
+    private final Duration tlsSessionTimeout;
+
+    /**
+     * The customizer of the {@link SslContextBuilder}, applied last, e.g. to trust a private certificate authority or
+     * to present a client certificate.
+     */
+    private final Consumer<SslContextBuilder> sslContextCustomizer;
+
+    /**
+     * The {@link MayaMetrics} whose {@link io.micrometer.core.instrument.MeterRegistry} also records the gauges of the
+     * connection pool, or null to record none.
+     */
+    private final MayaMetrics metrics;
+
+    private volatile ConnectionProvider connectionProvider;
+
+    private volatile HttpClient httpClient;
+
+    @Override
+    public ClientHttpConnector createConnector(final String paymentGatewayUrl) {
+        connectionProvider = createConnectionProvider();
+
+        boolean secure = paymentGatewayUrl.startsWith("https:");
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(getProtocols(secure));
+        if (connectTimeout != null) {
+            httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+        }
+        if (secure) {
+            SslContext sslContext = createSslContext();
+            httpClient = httpClient.secure(spec -> spec.sslContext(sslContext));
+        }
+        if (dnsCache) {
+            // resolves asynchronously and caches the addresses for the TTLs of their DNS records
+            httpClient = httpClient.resolver(spec -> {
+                if (dnsMinTtl != null) {
+                    spec.cacheMinTimeToLive(dnsMinTtl);
+                }
+                if (dnsMaxTtl != null) {
+                    spec.cacheMaxTimeToLive(dnsMaxTtl);
+                }
+                if (dnsNegativeTtl != null) {
+                    spec.cacheNegativeTimeToLive(dnsNegativeTtl);
+                }
+            });
+        }
+        if (compress) {
+            // sends Accept-Encoding and decompresses gzip and deflate responses
+            httpClient = httpClient.compress(true);
+            if (compressionStatistics != null) {
+                httpClient = httpClient.doOnChannelInit((observer, channel, remoteAddress) ->
+                        countCompressedResponses(channel.pipeline()));
+            }
+        }
+
+        this.httpClient = httpClient;
+
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Override
+    public Mono<Void> warmUp() {
+        HttpClient client = httpClient;
+
+        return client == null ? Mono.empty() : client.warmup();
+    }
+
+    @Override
+    public boolean isTimeout(Throwable cause) {
+        return cause instanceof ConnectTimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException;
+    }
+
+    @Override
+    public boolean isConnectTimeout(Throwable cause) {
+        return cause instanceof ConnectTimeoutException;
+    }
+
+    @Override
+    public void dispose() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    /**
+     * Adds the handlers around the HTTP/1.1 decompressor that count the bytes of compressed response bodies before and
+     * after decompression.
+     *
+     * @param pipeline the {@link ChannelPipeline}
+     */
+    private void countCompressedResponses(ChannelPipeline pipeline) {
+        if (pipeline.get(NettyPipeline.HttpDecompressor) == null) {
+            return;
+        }
+
+        CompressedResponseCounter counter = new CompressedResponseCounter(compressionStatistics);
+        pipeline.addBefore(NettyPipeline.HttpDecompressor, "maya.compressedBytes", counter.new Received());
+        pipeline.addAfter(NettyPipeline.HttpDecompressor, "maya.decompressedBytes", counter.new Decompressed());
+    }
+
+    /**
+     * Creates the {@link SslContext} with the configured TLS engine and session cache. Client sessions are cached
+     * per gateway host and port, so that new connections resume them with an abbreviated handshake.
+     *
+     * @return the {@link SslContext}
+     */
+    private SslContext createSslContext() {
+        SslProvider sslProvider = getSslProvider();
+        log.debug("Securing the connections to the payment gateway with {}", sslProvider);
+
+        // configures ALPN for h2 over TLS
+        ProtocolSslContextSpec spec = protocolVersion == null || protocolVersion == HttpProtocolVersion.H1
+                ? Http11SslContextSpec.forClient() : Http2SslContextSpec.forClient();
+        spec = spec.configure(builder -> {
+            builder.sslProvider(sslProvider);
+            if (tlsSessionCacheSize > 0) {
+                builder.sessionCacheSize(tlsSessionCacheSize);
+            }
+            if (tlsSessionTimeout != null) {
+                builder.sessionTimeout(tlsSessionTimeout.toSeconds());
+            }
+            if (sslContextCustomizer != null) {
+                sslContextCustomizer.accept(builder);
+            }
+        });
+
+        SslContext sslContext;
+        try {
+            sslContext = spec.sslContext();
+        } catch (SSLException e) {
+            throw new IllegalStateException("Failed to create the TLS context", e);
+        }
+
+        // unlike JDK ones, Netty only caches OpenSSL client sessions when the system property
+        // io.netty.handler.ssl.openssl.sessionCacheClient is set, so they would otherwise never be resumed
+        if (tlsSessionCacheSize > 0 && sslContext.sessionContext() instanceof OpenSslSessionContext sessionContext) {
+            sessionContext.setSessionCacheEnabled(true);
+        }
+
+        return sslContext;
+    }
+
+    /**
+     * Returns the {@link SslProvider} of the configured {@link TlsProvider}.
+     *
+     * @return the {@link SslProvider}
+     * @throws IllegalStateException if OpenSSL is configured but netty-tcnative is not on the classpath
+     */
+    SslProvider getSslProvider() {
+        if (tlsProvider == TlsProvider.JDK) {
+            return SslProvider.JDK;
+        }
+        if (OpenSsl.isAvailable()) {
+            return SslProvider.OPENSSL;
+        }
+        if (tlsProvider == TlsProvider.OPENSSL) {
+            throw new IllegalStateException("OpenSSL is not available, add netty-tcnative-boringssl-static to the "
+                    + "classpath", OpenSsl.unavailabilityCause());
+        }
+
+        return SslProvider.JDK;
+    }
+
+    /**
+     * Returns the {@link HttpProtocol}s matching the configured {@link HttpProtocolVersion}.
+     *
+     * @param secure whether the payment gateway URL uses TLS
+     * @return the {@link HttpProtocol}s
+     */
+    private HttpProtocol[] getProtocols(boolean secure) {
+        HttpProtocol h2 = secure ? HttpProtocol.H2 : HttpProtocol.H2C;
+        if (protocolVersion == null) {
+            return new HttpProtocol[]{HttpProtocol.HTTP11};
+        }
+
+        return switch (protocolVersion) {
+            case H1 -> new HttpProtocol[]{HttpProtocol.HTTP11};
+            case H2 -> new HttpProtocol[]{h2};
+            case H2_WITH_H1_FALLBACK -> new HttpProtocol[]{h2, HttpProtocol.HTTP11};
+        };
+    }
+
+    /**
+     * Creates the {@link ConnectionProvider} shared by all requests.
+     *
+     * @return the {@link ConnectionProvider}
+     */
+    private ConnectionProvider createConnectionProvider() {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(poolName == null ? "maya" : poolName);
+        if (maxConnections > 0) {
+            builder.maxConnections(maxConnections);
+        }
+        if (pendingAcquireMaxCount != 0) {
+            builder.pendingAcquireMaxCount(pendingAcquireMaxCount);
+        }
+        if (pendingAcquireTimeout != null) {
+            builder.pendingAcquireTimeout(pendingAcquireTimeout);
+        }
+        if (maxIdleTime != null) {
+            builder.maxIdleTime(maxIdleTime);
+        }
+        if (maxLifeTime != null) {
+            builder.maxLifeTime(maxLifeTime);
+        }
+        if (evictInBackground != null) {
+            builder.evictInBackground(evictInBackground);
+        }
+        if (metrics != null) {
+            ReactorNettyPoolMetrics poolMetrics = new ReactorNettyPoolMetrics(metrics.getRegistry());
+            builder.metrics(true, () -> poolMetrics);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * The counter of the bytes of the compressed response bodies of a connection, which are read one at a time.
+     */
+    private static final class CompressedResponseCounter {
+
+        private final CompressionStatistics statistics;
+
+        private boolean compressed;
+
+        private long compressedBytes;
+
+        private long bytes;
+
+        CompressedResponseCounter(CompressionStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        /**
+         * The handler of the responses as received.
+         */
+        private final class Received extends ChannelInboundHandlerAdapter {
+
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                if (msg instanceof HttpResponse response) {
+                    compressed = response.headers().contains(HttpHeaderNames.CONTENT_ENCODING);
+                    compressedBytes = 0;
+                    bytes = 0;
+                }
+                if (compressed && msg instanceof HttpContent content) {
+                    compressedBytes += content.content().readableBytes();
+                }
+                ctx.fireChannelRead(msg);
+            }
+        }
+
+        /**
+         * The handler of the responses as decompressed.
+         */
+        private final class Decompressed extends ChannelInboundHandlerAdapter {
+
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                if (compressed && msg instanceof HttpContent content) {
+                    bytes += content.content().readableBytes();
+                    if (msg instanceof LastHttpContent) {
+                        statistics.recordResponse(bytes, compressedBytes);
+                    }
+                }
+                ctx.fireChannelRead(msg);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@link ExchangeFilterFunction} that sends the request bodies of at least the given number of bytes gzipped,
+ * with the {@code Content-Encoding: gzip} header. Smaller bodies are sent as is, as compression would cost more than
+ * it saves.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class RequestCompressionFilter implements ExchangeFilterFunction {
+
+    private static final String GZIP = "gzip";
+
+    private final int threshold;
+
+    private final CompressionStatistics statistics;
+
+    /**
+     * Default constructor.
+     *
+     * @param threshold  the minimum number of bytes of a compressed request body
+     * @param statistics the {@link CompressionStatistics}
+     */
+    RequestCompressionFilter(int threshold, CompressionStatistics statistics) {
+        this.threshold = threshold;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return next.exchange(request);
+        }
+
+        ClientRequest compressingRequest = ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body()
+                        .insert(new CompressingRequest(outputMessage), context))
+                .build();
+
+        return next.exchange(compressingRequest);
+    }
+
+    /**
+     * The {@link ClientHttpRequest} that compresses its body.
+     */
+    private class CompressingRequest extends ClientHttpRequestDecorator {
+
+        CompressingRequest(ClientHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            // the JSON encoder writes the body into a single buffer
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (length < threshold) {
+                            return super.writeWith(Mono.just(buffer));
+                        }
+
+                        DataBuffer compressed = compress(buffer);
+                        statistics.recordRequest(length, compressed.readableByteCount());
+                        getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                        getHeaders().setContentLength(compressed.readableByteCount());
+
+                        return super.writeWith(Mono.just(compressed));
+                    });
+        }
+
+        private DataBuffer compress(DataBuffer buffer) {
+            DataBuffer compressed = bufferFactory().allocateBuffer(Math.max(buffer.readableByteCount() / 4, 64));
+            boolean release = true;
+            try (InputStream in = buffer.asInputStream();
+                 OutputStream out = new GZIPOutputStream(compressed.asOutputStream())) {
+                in.transferTo(out);
+                release = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+                if (release) {
+                    DataBufferUtils.release(compressed);
+                }
+            }
+
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.UriUtils;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A request to a Maya endpoint whose URI template and static headers are parsed once, leaving only the
+ * substitution of the URI variables to be done per call.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class RequestTemplate {
+
+    private final String name;
+
+    private final HttpMethod method;
+
+    private final EndpointFamily family;
+
+    private final String path;
+
+    private final String[] literals;
+
+    private final boolean secretKeyRequired;
+
+    private final boolean readOnly;
+
+    private final HttpHeaders headers;
+
+    private RequestTemplate(final String name, HttpMethod method, EndpointFamily family, final String path,
+            boolean secretKeyRequired, boolean readOnly) {
+        this.name = name;
+        this.method = method;
+        this.family = family;
+        this.path = path;
+        this.literals = parse(path);
+        this.secretKeyRequired = secretKeyRequired;
+        this.readOnly = readOnly;
+
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        if (HttpMethod.POST == method || HttpMethod.PUT == method) {
+            httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        }
+        this.headers = HttpHeaders.readOnlyHttpHeaders(httpHeaders);
+    }
+
+    /**
+     * Creates the template of a GET request, which has no body, e.g. the list of the refunds of a payment. Since
+     * the gateway also uses GET to change some resources, such a request is not assumed to be read-only.
+     *
+     * @param name              the name of the operation, e.g. {@code retrieveRefunds}
+     * @param family            the {@link EndpointFamily}
+     * @param path              the path, which may contain URI variables e.g. {@code /payments/{paymentId}/refunds}
+     * @param secretKeyRequired whether the request is authorized using the secret key instead of the public key
+     * @return the {@link RequestTemplate}
+     */
+    static RequestTemplate get(final String name, EndpointFamily family, final String path,
+            boolean secretKeyRequired) {
+        return new RequestTemplate(name, HttpMethod.GET, family, path, secretKeyRequired, false);
+    }
+
+    /**
+     * Creates the template of a read-only GET request that looks up a single resource, e.g. a payment, and may
+     * therefore be sent twice when hedged, shared by concurrent callers and served from the response cache.
+     *
+     * @param name              the name of the operation, e.g. {@code retrievePaymentByPaymentId}
+     * @param family            the {@link EndpointFamily}
+     * @param path              the path, which may contain URI variables e.g. {@code /payments/{paymentId}}
+     * @param secretKeyRequired whether the request is authorized using the secret key instead of the public key
+     * @return the {@link RequestTemplate}
+     */
+    static RequestTemplate lookup(final String name, EndpointFamily family, final String path,
+            boolean secretKeyRequired) {
+        return new RequestTemplate(name, HttpMethod.GET, family, path, secretKeyRequired, true);
+    }
+
+    /**
+     * Creates the template of a POST request, which sends a JSON body, e.g. the refund of a payment.
+     *
+     * @param name              the name of the operation, e.g. {@code refundPaymentByPaymentId}
+     * @param family            the {@link EndpointFamily}
+     * @param path              the path, which may contain URI variables e.g. {@code /payments/{paymentId}/refunds}
+     * @param secretKeyRequired whether the request is authorized using the secret key instead of the public key
+     * @return the {@link RequestTemplate}
+     */
+    static RequestTemplate post(final String name, EndpointFamily family, final String path,
+            boolean secretKeyRequired) {
+        return new RequestTemplate(name, HttpMethod.POST, family, path, secretKeyRequired, false);
+    }
+
+    /**
+     * Creates the template of a PUT request, which sends a JSON body replacing a resource, e.g. a webhook.
+     *
+     * @param name              the name of the operation, e.g. {@code updateCheckoutWebhook}
+     * @param family            the {@link EndpointFamily}
+     * @param path              the path, which may contain URI variables e.g. {@code /webhooks/{webhookId}}
+     * @param secretKeyRequired whether the request is authorized using the secret key instead of the public key
+     * @return the {@link RequestTemplate}
+     */
+    static RequestTemplate put(final String name, EndpointFamily family, final String path,
+            boolean secretKeyRequired) {
+        return new RequestTemplate(name, HttpMethod.PUT, family, path, secretKeyRequired, false);
+    }
+
+    /**
+     * Creates the template of a DELETE request, which has no body and removes a resource, e.g. a webhook.
+     *
+     * @param name              the name of the operation, e.g. {@code deleteCheckoutWebhook}
+     * @param family            the {@link EndpointFamily}
+     * @param path              the path, which may contain URI variables e.g. {@code /webhooks/{webhookId}}
+     * @param secretKeyRequired whether the request is authorized using the secret key instead of the public key
+     * @return the {@link RequestTemplate}
+     */
+    static RequestTemplate delete(final String name, EndpointFamily family, final String path,
+            boolean secretKeyRequired) {
+        return new RequestTemplate(name, HttpMethod.DELETE, family, path, secretKeyRequired, false);
+    }
+
+    /**
+     * Returns the name of the operation, which is low-cardinality unlike the expanded URI.
+     *
+     * @return the name of the operation
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the {@link HttpMethod}.
+     *
+     * @return the {@link HttpMethod}
+     */
+    HttpMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the {@link EndpointFamily}.
+     *
+     * @return the {@link EndpointFamily}
+     */
+    EndpointFamily getFamily() {
+        return family;
+    }
+
+    /**
+     * Returns the unexpanded path.
+     *
+     * @return the unexpanded path
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns whether the request is authorized using the secret key instead of the public key.
+     *
+     * @return true if the secret key is required
+     */
+    boolean isSecretKeyRequired() {
+        return secretKeyRequired;
+    }
+
+    /**
+     * Returns whether the request only reads a resource, so that sending it more than once has no effect.
+     *
+     * @return true if read-only
+     */
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Returns the read-only static headers i.e. Accept and, for requests with a body, Content-Type.
+     *
+     * @return the {@link HttpHeaders}
+     */
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the absolute {@link URI} after substituting the given URI variables in order.
+     *
+     * @param baseUrl      the payment gateway URL
+     * @param uriVariables the URI variables, which are percent-encoded
+     * @return the {@link URI}
+     */
+    URI expand(final String baseUrl, final String... uriVariables) {
+        if (uriVariables.length != literals.length - 1) {
+            throw new IllegalArgumentException("Expected " + (literals.length - 1) + " URI variables for "
+                    + path + " but got " + uriVariables.length);
+        }
+
+        StringBuilder builder = new StringBuilder(baseUrl.length() + path.length() + 36 * uriVariables.length)
+                .append(baseUrl)
+                .append(literals[0]);
+        for (int i = 0; i < uriVariables.length; i++) {
+            if (uriVariables[i] != null) {
+                builder.append(UriUtils.encode(uriVariables[i], StandardCharsets.UTF_8));
+            }
+            builder.append(literals[i + 1]);
+        }
+
+        return URI.create(builder.toString());
+    }
+
+    private static String[] parse(final String path) {
+        List<String> literals = new ArrayList<>();
+        int start = 0;
+        int open = path.indexOf('{');
+        while (open != -1) {
+            int close = path.indexOf('}', open);
+            if (close == -1) {
+                throw new IllegalArgumentException("Unclosed URI variable in " + path);
+            }
+            literals.add(path.substring(start, open));
+            start = close + 1;
+            open = path.indexOf('{', start);
+        }
+        literals.add(path.substring(start));
+
+        return literals.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.vincenzolabs.maya.dto.CheckoutGETResponse;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.dto.RefundResponse;
+import org.vincenzolabs.maya.dto.VoidResponse;
+import org.vincenzolabs.maya.enumeration.PaymentStatus;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A bounded cache of responses with W-TinyLFU eviction, whose entries live for as long as their state allows.
+ * Payments, checkouts, voids and refunds in a terminal state are kept for the terminal TTL, those in any other state
+ * for the pending TTL, and responses of any other type are not cached. Once expired, responses with an ETag or a
+ * Last-Modified validator are retained for the revalidation TTL so that they can be revalidated with a conditional
+ * request instead of being fetched again.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class ResponseCache {
+
+    private static final Set<PaymentStatus> TERMINAL_PAYMENT_STATUSES = EnumSet.of(PaymentStatus.PAYMENT_SUCCESS,
+            PaymentStatus.PAYMENT_FAILED, PaymentStatus.PAYMENT_EXPIRED, PaymentStatus.VOIDED, PaymentStatus.REFUNDED);
+
+    private static final Set<String> TERMINAL_STATUSES = Set.of("SUCCESS", "FAILED", "FAILURE");
+
+    private final Duration terminalTtl;
+
+    private final Duration pendingTtl;
+
+    private final Duration revalidationTtl;
+
+    private final Cache<Object, Entry> cache;
+
+    /**
+     * Default constructor.
+     *
+     * @param maximumSize the maximum number of entries
+     * @param terminalTtl     the time to live of responses in a terminal state
+     * @param pendingTtl      the time to live of responses in any other state
+     * @param revalidationTtl the time that expired responses with validators are retained for revalidation
+     */
+    ResponseCache(long maximumSize, Duration terminalTtl, Duration pendingTtl, Duration revalidationTtl) {
+        this.terminalTtl = terminalTtl;
+        this.pendingTtl = pendingTtl;
+        this.revalidationTtl = revalidationTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Object, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Entry entry, long currentTime) {
+                        return getRetention(entry).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Entry entry, long currentTime, long currentDuration) {
+                        return getRetention(entry).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the fresh cached response of the given type.
+     *
+     * @param key   the key
+     * @param clazz the type of the response
+     * @param <T>   the type of the response
+     * @return the response, or null if absent, expired or of another type
+     */
+    <T> T get(Object key, Class<T> clazz) {
+        Entry entry = cache.getIfPresent(key);
+
+        return entry != null && entry.isFresh() && clazz.isInstance(entry.response())
+                ? clazz.cast(entry.response()) : null;
+    }
+
+    /**
+     * Returns the cached {@link Entry}, which may have expired but can still be revalidated.
+     *
+     * @param key the key
+     * @return the {@link Entry}, or null if absent
+     */
+    Entry getEntry(Object key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches the given response if its type is cacheable.
+     *
+     * @param key      the key
+     * @param response the response
+     */
+    void put(Object key, Object response) {
+        put(key, response, null, null);
+    }
+
+    /**
+     * Caches the given response and its validators if its type is cacheable, restarting its time to live.
+     *
+     * @param key          the key
+     * @param response     the response
+     * @param eTag         the ETag header value, if any
+     * @param lastModified the Last-Modified header value, if any
+     */
+    void put(Object key, Object response, final String eTag, final String lastModified) {
+        Duration ttl = getTtl(response);
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            cache.put(key, new Entry(response, eTag, lastModified, System.nanoTime() + ttl.toNanos()));
+        }
+    }
+
+    /**
+     * Removes the cached response, e.g. after the resource has been modified.
+     *
+     * @param key the key
+     */
+    void invalidate(Object key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Removes the cached responses whose keys match the given {@link Predicate}.
+     *
+     * @param predicate the {@link Predicate}
+     */
+    void invalidateAll(Predicate<Object> predicate) {
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    /**
+     * Returns the time to live of the given response according to its state.
+     *
+     * @param response the response
+     * @return the time to live, which is zero if not cacheable
+     */
+    Duration getTtl(Object response) {
+        if (response instanceof PaymentResponse paymentResponse) {
+            return getTtl(TERMINAL_PAYMENT_STATUSES.contains(paymentResponse.getStatus()));
+        } else if (response instanceof CheckoutGETResponse checkoutResponse) {
+            return getTtl(TERMINAL_PAYMENT_STATUSES.contains(checkoutResponse.getPaymentStatus()));
+        } else if (response instanceof VoidResponse voidResponse) {
+            return getTtl(isTerminal(voidResponse.getStatus()));
+        } else if (response instanceof RefundResponse refundResponse) {
+            return getTtl(isTerminal(refundResponse.getStatus()));
+        }
+
+        return Duration.ZERO;
+    }
+
+    private Duration getRetention(Entry entry) {
+        Duration ttl = getTtl(entry.response());
+
+        return entry.hasValidators() ? ttl.plus(revalidationTtl) : ttl;
+    }
+
+    private Duration getTtl(boolean terminal) {
+        return terminal ? terminalTtl : pendingTtl;
+    }
+
+    private static boolean isTerminal(final String status) {
+        return status != null && TERMINAL_STATUSES.contains(status.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * A cached response with its validators.
+     *
+     * @param response     the response
+     * @param eTag         the ETag header value, if any
+     * @param lastModified the Last-Modified header value, if any
+     * @param freshUntil   the {@link System#nanoTime()} after which the response must be revalidated
+     */
+    record Entry(Object response, String eTag, String lastModified, long freshUntil) {
+
+        /**
+         * Returns whether the response can be served without revalidation.
+         *
+         * @return true if fresh
+         */
+        boolean isFresh() {
+            return freshUntil - System.nanoTime() > 0;
+        }
+
+        /**
+         * Returns whether the response can be revalidated with a conditional request.
+         *
+         * @return true if there is an ETag or a Last-Modified validator
+         */
+        boolean hasValidators() {
+            return eTag != null || lastModified != null;
+        }
+    }
+}
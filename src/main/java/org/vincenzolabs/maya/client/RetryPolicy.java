@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiTimeoutException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The policy for retrying calls that failed with a transient error, i.e. a connection error, a timeout, or a
+ * 502, 503 or 504 response. Since every attempt of a call sends the same X-Idempotency-Key, the payment gateway
+ * does not process a retried payment, void or refund twice. A 429 Too Many Requests is also retried, but never
+ * before its Retry-After.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@Slf4j
+final class RetryPolicy {
+
+    private final int maxAttempts;
+
+    private final Duration minBackoff;
+
+    private final Duration maxBackoff;
+
+    private final double jitter;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxAttempts the maximum number of attempts including the first, where 1 or less disables retries
+     * @param minBackoff  the backoff before the first retry, which doubles on every subsequent retry
+     * @param maxBackoff  the maximum backoff
+     * @param jitter      the jitter factor between 0 and 1 applied to every backoff
+     */
+    RetryPolicy(int maxAttempts, Duration minBackoff, Duration maxBackoff, double jitter) {
+        this.maxAttempts = maxAttempts;
+        this.minBackoff = minBackoff == null ? Duration.ofMillis(100) : minBackoff;
+        this.maxBackoff = maxBackoff == null ? Duration.ofSeconds(2) : maxBackoff;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Returns whether failed calls are retried at all.
+     *
+     * @return true if enabled
+     */
+    boolean isEnabled() {
+        return maxAttempts > 1;
+    }
+
+    /**
+     * Returns the {@link Retry} that resubscribes after a transient error with jittered exponential backoff, and
+     * propagates the last error once the attempts are exhausted. A 429 Too Many Requests is only retried after its
+     * Retry-After, and not at all if that is longer than the maximum backoff.
+     *
+     * @param retryable the additional condition for retrying e.g. that the caller's deadline has not expired
+     * @return the {@link Retry}
+     */
+    Retry toRetry(BooleanSupplier retryable) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            Duration backoff = getBackoff(signal.totalRetries(), failure);
+            if (signal.totalRetries() >= maxAttempts - 1L || backoff == null || !retryable.getAsBoolean()) {
+                return Mono.error(failure);
+            }
+
+            log.debug("Retrying in {} after attempt {} failed", backoff, signal.totalRetries() + 1, failure);
+            return Mono.delay(backoff);
+        }));
+    }
+
+    /**
+     * Returns the backoff before the given retry of a call that failed with the given error.
+     *
+     * @param retry     the number of retries so far
+     * @param throwable the {@link Throwable}
+     * @return the backoff, or null if the call must not be retried
+     */
+    Duration getBackoff(long retry, Throwable throwable) {
+        if (!isTransient(throwable)) {
+            return null;
+        }
+
+        long backoffNanos = minBackoff.toNanos() << Math.min(retry, 30);
+        if (backoffNanos <= 0 || backoffNanos > maxBackoff.toNanos()) {
+            backoffNanos = maxBackoff.toNanos();
+        }
+        long jitterNanos = (long) (backoffNanos * jitter);
+        if (jitterNanos > 0) {
+            backoffNanos += ThreadLocalRandom.current().nextLong(-jitterNanos, jitterNanos + 1);
+        }
+        Duration backoff = Duration.ofNanos(Math.max(minBackoff.toNanos(), Math.min(maxBackoff.toNanos(),
+                backoffNanos)));
+
+        // the gateway rejects anything sent before Retry-After, whether or not the token buckets are enabled
+        Duration retryAfter = getRetryAfter(throwable);
+        if (retryAfter == null || retryAfter.compareTo(backoff) <= 0) {
+            return backoff;
+        }
+
+        return retryAfter.compareTo(maxBackoff) <= 0 ? retryAfter : null;
+    }
+
+    /**
+     * Returns whether the given error is transient, i.e. the same request may succeed when sent again. A 429 Too
+     * Many Requests is transient because the gateway rejected it before processing.
+     *
+     * @param throwable the {@link Throwable}
+     * @return true if transient
+     */
+    static boolean isTransient(Throwable throwable) {
+        if (throwable instanceof ApiTimeoutException || throwable instanceof WebClientRequestException) {
+            return true;
+        } else if (throwable instanceof ApiException apiException) {
+            HttpStatusCode status = apiException.getApiError().getStatus();
+            return status != null && (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || status.value() == HttpStatus.BAD_GATEWAY.value()
+                    || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+        }
+
+        return false;
+    }
+
+    private static Duration getRetryAfter(Throwable throwable) {
+        if (throwable instanceof ApiException apiException && apiException.getApiError().getStatus() != null
+                && apiException.getApiError().getStatus().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return apiException.getApiError().getRetryAfter();
+        }
+
+        return null;
+    }
+}
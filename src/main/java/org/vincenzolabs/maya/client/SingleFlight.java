@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one, whose result is shared among the callers. The call is
+ * forgotten as soon as it terminates or every caller has cancelled, so a later caller starts a new call.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class SingleFlight {
+
+    private final ConcurrentMap<Object, Mono<?>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Joins the in-flight call with the given key, or starts one using the given supplier.
+     *
+     * @param key  the key, which must implement equals and hashCode
+     * @param call the {@link Supplier} of the call
+     * @param <T>  the type of the response
+     * @return the shared {@link Mono}
+     */
+    @SuppressWarnings("unchecked")
+    <T> Mono<T> execute(Object key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> (Mono<T>) calls.computeIfAbsent(key, k -> {
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            Mono<T> shared = call.get()
+                    .doFinally(signal -> calls.remove(k, self.get()))
+                    .share();
+            self.set(shared);
+
+            return shared;
+        }));
+    }
+
+    /**
+     * Returns the number of in-flight calls.
+     *
+     * @return the number of in-flight calls
+     */
+    int size() {
+        return calls.size();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.springframework.http.HttpStatus;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A token bucket that limits the rate of calls sent with one merchant key to one endpoint family. A call that
+ * finds the bucket empty reserves the next token and is delayed until it is due, unless that is later than the
+ * maximum wait, in which case it is rejected with {@link ApiRejectedException}. When the gateway responds with
+ * 429 Too Many Requests, the bucket is drained and paused for the duration of the Retry-After header.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+final class TokenBucketRateLimiter {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String name;
+
+    private final double permitsPerSecond;
+
+    private final double permitsPerNano;
+
+    private final double capacity;
+
+    private final long maxWaitNanos;
+
+    private double tokens;
+
+    private long refilledAt;
+
+    /**
+     * Default constructor.
+     *
+     * @param name              the name used in error messages
+     * @param permitsPerSecond  the sustained rate, which is also the burst capacity
+     * @param maxWait           the maximum time a call may be delayed
+     */
+    TokenBucketRateLimiter(final String name, double permitsPerSecond, Duration maxWait) {
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.permitsPerNano = permitsPerSecond / Duration.ofSeconds(1).toNanos();
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Returns the sustained rate.
+     *
+     * @return the permits per second
+     */
+    double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Subscribes to the given {@link Mono} once a token is available.
+     *
+     * @param source the {@link Mono}
+     * @param <T>    the type of the response
+     * @return the rate-limited {@link Mono}
+     */
+    <T> Mono<T> limit(Mono<T> source) {
+        return limit(source, null);
+    }
+
+    /**
+     * Subscribes to the given {@link Mono} once a token is available. A call whose token is not due before the
+     * given {@link Deadline} expires fails immediately with {@link TimeoutException}, without taking the token.
+     *
+     * @param source   the {@link Mono}
+     * @param deadline the {@link Deadline}, or null if there is none
+     * @param <T>      the type of the response
+     * @return the rate-limited {@link Mono}
+     */
+    <T> Mono<T> limit(Mono<T> source, Deadline deadline) {
+        return Mono.defer(() -> {
+            long maxWait = getMaxWaitNanos(deadline);
+            long wait = reserve(maxWait);
+            if (wait < 0) {
+                return Mono.error(getWaitException(maxWait));
+            }
+
+            Mono<T> mono = source.doOnError(this::onError);
+            return wait == 0 ? mono : Mono.delay(Duration.ofNanos(wait)).then(mono);
+        });
+    }
+
+    /**
+     * Subscribes to the given {@link Flux} once a token is available.
+     *
+     * @param source the {@link Flux}
+     * @param <T>    the type of the elements
+     * @return the rate-limited {@link Flux}
+     */
+    <T> Flux<T> limit(Flux<T> source) {
+        return limit(source, null);
+    }
+
+    /**
+     * Subscribes to the given {@link Flux} once a token is available. A call whose token is not due before the
+     * given {@link Deadline} expires fails immediately with {@link TimeoutException}, without taking the token.
+     *
+     * @param source   the {@link Flux}
+     * @param deadline the {@link Deadline}, or null if there is none
+     * @param <T>      the type of the elements
+     * @return the rate-limited {@link Flux}
+     */
+    <T> Flux<T> limit(Flux<T> source, Deadline deadline) {
+        return Flux.defer(() -> {
+            long maxWait = getMaxWaitNanos(deadline);
+            long wait = reserve(maxWait);
+            if (wait < 0) {
+                return Flux.error(getWaitException(maxWait));
+            }
+
+            Flux<T> flux = source.doOnError(this::onError);
+            return wait == 0 ? flux : Mono.delay(Duration.ofNanos(wait)).thenMany(flux);
+        });
+    }
+
+    /**
+     * Drains the bucket and stops refilling it until the given {@link Duration} has elapsed.
+     *
+     * @param retryAfter the {@link Duration}
+     */
+    synchronized void pause(Duration retryAfter) {
+        long now = System.nanoTime();
+        refill(now);
+        tokens = Math.min(tokens, 0);
+        refilledAt = Math.max(refilledAt, now + retryAfter.toNanos());
+    }
+
+    /**
+     * Takes a token, which may be due in the future.
+     *
+     * @return the nanoseconds until the token is due, or -1 if that exceeds the maximum wait
+     */
+    long reserve() {
+        return reserve(maxWaitNanos);
+    }
+
+    private synchronized long reserve(long maxWait) {
+        long now = System.nanoTime();
+        refill(now);
+
+        double remaining = tokens - 1;
+        long wait = Math.max(0, refilledAt - now);
+        if (remaining < 0) {
+            wait += (long) Math.ceil(-remaining / permitsPerNano);
+        }
+        if (wait > maxWait) {
+            return -1;
+        }
+        tokens = remaining;
+
+        return wait;
+    }
+
+    private void refill(long now) {
+        // refilledAt is in the future while paused
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+        }
+    }
+
+    private void onError(Throwable throwable) {
+        if (throwable instanceof ApiException apiException && apiException.getApiError().getStatus() != null
+                && apiException.getApiError().getStatus().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            Duration retryAfter = apiException.getApiError().getRetryAfter();
+            pause(retryAfter == null ? DEFAULT_RETRY_AFTER : retryAfter);
+        }
+    }
+
+    private long getMaxWaitNanos(Deadline deadline) {
+        return deadline == null ? maxWaitNanos : Math.min(maxWaitNanos, Math.max(0, deadline.remaining().toNanos()));
+    }
+
+    private Exception getWaitException(long maxWait) {
+        if (maxWait < maxWaitNanos) {
+            return new TimeoutException("Deadline expires before a token of " + name + " is due");
+        }
+
+        return new ApiRejectedException("Rate limit of " + name + " exceeded", null);
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link ExchangeFilterFunction} that logs a sample of the exchanges with the payment gateway at debug level.
+ * The requests and responses of a sampled exchange are copied as they are sent and received, up to the maximum body
+ * size, then formatted and logged on a dedicated thread, so that the event loops neither format nor write logs. The
+ * {@code Authorization} header, the fund source details and the masked card numbers are redacted. Exchanges are
+ * dropped if the logging thread falls behind by more than the given number of exchanges.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@Slf4j
+class WireLogFilter implements ExchangeFilterFunction {
+
+    private static final String REDACTED = "[REDACTED]";
+
+    private static final String FUND_SOURCE = "fundSource";
+
+    private static final String DETAILS = "details";
+
+    private static final String MASKED_CARD_NUMBER = "maskedResponseMetadataCardNumber";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final double sampleRate;
+
+    private final int maxBodySize;
+
+    private final Scheduler scheduler;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Default constructor.
+     *
+     * @param sampleRate  the fraction of the exchanges to log, between 0 and 1
+     * @param maxBodySize the maximum number of bytes of a logged body
+     * @param queueSize   the maximum number of exchanges waiting to be logged
+     */
+    WireLogFilter(double sampleRate, int maxBodySize, int queueSize) {
+        this.sampleRate = sampleRate;
+        this.maxBodySize = maxBodySize;
+        this.scheduler = Schedulers.newBoundedElastic(1, queueSize, "maya-wire-log", 60, true);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!log.isDebugEnabled() || !isSampled()) {
+            return next.exchange(request);
+        }
+
+        WireLog wireLog = new WireLog(request);
+        ClientRequest loggedRequest = ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body()
+                        .insert(new LoggedRequest(outputMessage, wireLog), context))
+                .build();
+
+        return next.exchange(loggedRequest)
+                .map(response -> {
+                    wireLog.status = response.statusCode();
+                    wireLog.responseHeaders = response.headers().asHttpHeaders();
+
+                    return response.mutate()
+                            .body(body -> body
+                                    .doOnNext(wireLog.responseBody::append)
+                                    .doFinally(signalType -> publish(wireLog)))
+                            .build();
+                })
+                .doOnError(throwable -> {
+                    wireLog.error = throwable;
+                    publish(wireLog);
+                });
+    }
+
+    /**
+     * Returns the number of sampled exchanges that were dropped as the logging thread fell behind.
+     *
+     * @return the number of dropped exchanges
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops the logging thread.
+     */
+    void dispose() {
+        scheduler.dispose();
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Hands the given exchange over to the logging thread, unless already logged.
+     *
+     * @param wireLog the {@link WireLog}
+     */
+    private void publish(WireLog wireLog) {
+        if (!wireLog.published.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            scheduler.schedule(() -> log.debug(wireLog.format()));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Returns the given JSON body with the fund source details and the masked card numbers redacted, cut at the end
+     * of the last complete token if truncated. Bodies that are not JSON are replaced by their size.
+     *
+     * @param body   the bytes of the body
+     * @param length the number of bytes of the body
+     * @return the redacted body
+     */
+    static String redact(byte[] body, int length) {
+        StringWriter writer = new StringWriter(length);
+        try (JsonParser parser = JSON_FACTORY.createParser(body, 0, length);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == JsonToken.FIELD_NAME && isRedacted(parser.getParsingContext())) {
+                        generator.writeFieldName(parser.currentName());
+                        parser.nextToken();
+                        parser.skipChildren();
+                        generator.writeString(REDACTED);
+                    } else {
+                        generator.copyCurrentEvent(parser);
+                    }
+                }
+            } catch (IOException e) {
+                // truncated, or not JSON, which is never written
+                generator.flush();
+                writer.write(writer.getBuffer().isEmpty() ? "[" + length + " bytes]" : "...");
+                return writer.toString();
+            }
+        } catch (IOException e) {
+            return "[" + length + " bytes]";
+        }
+
+        return writer.toString();
+    }
+
+    private static boolean isRedacted(JsonStreamContext context) {
+        String name = context.getCurrentName();
+        if (MASKED_CARD_NUMBER.equals(name)) {
+            return true;
+        }
+
+        JsonStreamContext parent = context.getParent();
+        return DETAILS.equals(name) && parent != null && FUND_SOURCE.equals(parent.getCurrentName());
+    }
+
+    /**
+     * The {@link ClientHttpRequest} that copies its body into the wire log as it is written.
+     */
+    private static final class LoggedRequest extends ClientHttpRequestDecorator {
+
+        private final WireLog wireLog;
+
+        LoggedRequest(ClientHttpRequest delegate, WireLog wireLog) {
+            super(delegate);
+            this.wireLog = wireLog;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            wireLog.requestHeaders = HttpHeaders.readOnlyHttpHeaders(getHeaders());
+
+            return super.writeWith(Flux.from(body).doOnNext(wireLog.requestBody::append));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            wireLog.requestHeaders = HttpHeaders.readOnlyHttpHeaders(getHeaders());
+
+            return super.setComplete();
+        }
+    }
+
+    /**
+     * The copy of a sampled exchange, written on the event loop and read on the logging thread once complete.
+     */
+    private final class WireLog {
+
+        private final long start = System.nanoTime();
+
+        private final String request;
+
+        private final Body requestBody = new Body();
+
+        private final Body responseBody = new Body();
+
+        private final AtomicBoolean published = new AtomicBoolean();
+
+        private volatile HttpHeaders requestHeaders;
+
+        private volatile HttpStatusCode status;
+
+        private volatile HttpHeaders responseHeaders;
+
+        private volatile Throwable error;
+
+        WireLog(ClientRequest request) {
+            this.request = request.method() + " " + request.url();
+            this.requestHeaders = request.headers();
+        }
+
+        String format() {
+            StringBuilder builder = new StringBuilder(request).append(" -> ");
+            builder.append(error != null ? error.toString() : status)
+                    .append(" in ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .append(" ms");
+            appendHeaders(builder, '>', requestHeaders);
+            requestBody.appendTo(builder, '>');
+            appendHeaders(builder, '<', responseHeaders);
+            responseBody.appendTo(builder, '<');
+
+            return builder.toString();
+        }
+
+        private void appendHeaders(StringBuilder builder, char direction, HttpHeaders headers) {
+            if (headers == null) {
+                return;
+            }
+
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                builder.append('\n').append(direction).append(' ').append(header.getKey()).append(": ")
+                        .append(HttpHeaders.AUTHORIZATION.equalsIgnoreCase(header.getKey())
+                                ? REDACTED : String.join(", ", header.getValue()));
+            }
+        }
+    }
+
+    /**
+     * The copy of the first bytes of a body.
+     */
+    private final class Body {
+
+        private byte[] bytes = new byte[0];
+
+        private int length;
+
+        private long size;
+
+        void append(DataBuffer buffer) {
+            int readable = buffer.readableByteCount();
+            size += readable;
+            int copied = Math.min(readable, maxBodySize - length);
+            if (copied <= 0) {
+                return;
+            }
+            if (length + copied > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(maxBodySize, Math.max(length + copied, bytes.length * 2)));
+            }
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), length, copied);
+            length += copied;
+        }
+
+        void appendTo(StringBuilder builder, char direction) {
+            if (size == 0) {
+                return;
+            }
+
+            builder.append('\n').append(direction).append(' ').append(redact(bytes, length));
+            if (size > length) {
+                builder.append(" (").append(size).append(" bytes)");
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.vincenzolabs.maya.client.MayaClientRegistry;
+import org.vincenzolabs.maya.client.MayaMetrics;
+import org.vincenzolabs.maya.client.MayaTransport;
+import org.vincenzolabs.maya.client.MayaV1BlockingClient;
+import org.vincenzolabs.maya.client.MayaV1Client;
+
+/**
+ * The auto-configuration of the Maya clients with the {@code maya.*} properties. Each bean backs off if the
+ * application defines its own, and a {@link MayaTransport} bean replaces the one created from the
+ * {@code maya.http.*} properties. Creating the beans does no network, DNS or transport work; the transport is
+ * created on the first request, or once the application is ready if {@code maya.warm-up.enabled}. The requests are
+ * recorded in the {@link MeterRegistry} of the application, if any, unless {@code maya.metrics.enabled} is false.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@Slf4j
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"})
+@ConditionalOnClass(WebClient.class)
+@EnableConfigurationProperties(MayaProperties.class)
+public class MayaAutoConfiguration {
+
+    /**
+     * Creates the {@link MayaV1Client} configured with the {@code maya.*} properties.
+     *
+     * @param properties  the {@link MayaProperties}
+     * @param transport   the {@link MayaTransport} defined by the application, if any
+     * @param environment the {@link Environment}
+     * @param metrics     the {@link MayaMetrics}, if Micrometer is on the classpath
+     * @return the {@link MayaV1Client}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public MayaV1Client mayaV1Client(MayaProperties properties, ObjectProvider<MayaTransport> transport,
+                                     Environment environment, ObjectProvider<MayaMetrics> metrics) {
+        return new MayaV1Client(properties, transport.getIfAvailable(),
+                String.join(",", environment.getActiveProfiles()), metrics.getIfAvailable());
+    }
+
+    /**
+     * Creates the {@link MayaV1BlockingClient} of the {@link MayaV1Client}.
+     *
+     * @param client the {@link MayaV1Client}
+     * @return the {@link MayaV1BlockingClient}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public MayaV1BlockingClient mayaV1BlockingClient(MayaV1Client client) {
+        return new MayaV1BlockingClient(client);
+    }
+
+    /**
+     * Creates the {@link MayaClientRegistry} of the sub-merchants sharing the {@link MayaV1Client}.
+     *
+     * @param client the {@link MayaV1Client}
+     * @return the {@link MayaClientRegistry}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public MayaClientRegistry mayaClientRegistry(MayaV1Client client) {
+        return new MayaClientRegistry(client);
+    }
+
+    /**
+     * Warms up the {@link MayaV1Client} once the application is ready, if {@code maya.warm-up.enabled}. By default,
+     * this runs in the background, so that neither the startup nor the first request waits for it. If
+     * {@code maya.warm-up.wait} is enabled, the application only accepts traffic once warmed up or after the warm-up
+     * timeout.
+     *
+     * @param client     the {@link MayaV1Client}
+     * @param properties the {@link MayaProperties}
+     * @return the {@link ApplicationListener}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "maya.warm-up", name = "enabled", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> mayaWarmUpListener(MayaV1Client client,
+                                                                         MayaProperties properties) {
+        MayaProperties.WarmUp warmUp = properties.getWarmUp();
+        if (!warmUp.isWait()) {
+            return event -> client.warmUp()
+                    .subscribe(null, throwable -> log.warn("Failed to warm up the Maya client", throwable));
+        }
+
+        // the readiness state changes to accepting traffic after the listeners of this event
+        return event -> {
+            try {
+                // bounded by the warm-up timeout
+                client.warmUp().block();
+            } catch (RuntimeException e) {
+                log.warn("Failed to warm up the Maya client", e);
+            }
+        };
+    }
+
+    /**
+     * The auto-configuration of the {@link MayaMetrics}, if Micrometer is on the classpath and the application has a
+     * {@link MeterRegistry}, e.g. with Spring Boot Actuator.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MayaMetricsConfiguration {
+
+        /**
+         * Creates the {@link MayaMetrics} recorded in the given {@link MeterRegistry}.
+         *
+         * @param registry the {@link MeterRegistry}
+         * @return the {@link MayaMetrics}
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnProperty(prefix = "maya.metrics", name = "enabled", havingValue = "true",
+                matchIfMissing = true)
+        public MayaMetrics mayaMetrics(MeterRegistry registry) {
+            return new MayaMetrics(registry);
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+import org.vincenzolabs.maya.enumeration.HttpProtocolVersion;
+import org.vincenzolabs.maya.enumeration.HttpTransport;
+import org.vincenzolabs.maya.enumeration.TlsProvider;
+
+import java.time.Duration;
+
+/**
+ * The {@code maya.*} properties of the {@link org.vincenzolabs.maya.client.MayaV1Client}. The defaults are the
+ * sandbox keys and URL, and the settings of a single-merchant client without resilience features.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "maya")
+public class MayaProperties {
+
+    private Key key = new Key();
+
+    private Payment payment = new Payment();
+
+    private Connection connection = new Connection();
+
+    private Timeout timeout = new Timeout();
+
+    private Retry retry = new Retry();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private Hedge hedge = new Hedge();
+
+    private SingleFlight singleFlight = new SingleFlight();
+
+    private Cache cache = new Cache();
+
+    private Http http = new Http();
+
+    private Codec codec = new Codec();
+
+    private Compression compression = new Compression();
+
+    private WarmUp warmUp = new WarmUp();
+
+    private Dns dns = new Dns();
+
+    private Tls tls = new Tls();
+
+    private WireLog wireLog = new WireLog();
+
+    private Metrics metrics = new Metrics();
+
+    /**
+     * The {@code maya.key.*} properties. The accessors are named after the {@code public} and {@code secret}
+     * properties, which are reserved words as fields.
+     */
+    public static class Key {
+
+        private String publicKey = "pk-MOfNKu3FmHMVHtjyjG7vhr7vFevRkWxmxYL1Yq6iFk5";
+
+        private String secretKey = "sk-NMda607FeZNGRt9xCdsIRiZ4Lqu6LT898ItHbN4qPSe";
+
+        /**
+         * Returns the public key.
+         *
+         * @return the public key
+         */
+        public String getPublic() {
+            return publicKey;
+        }
+
+        /**
+         * Sets the public key.
+         *
+         * @param publicKey the public key
+         */
+        public void setPublic(String publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        /**
+         * Returns the secret key.
+         *
+         * @return the secret key
+         */
+        public String getSecret() {
+            return secretKey;
+        }
+
+        /**
+         * Sets the secret key.
+         *
+         * @param secretKey the secret key
+         */
+        public void setSecret(String secretKey) {
+            this.secretKey = secretKey;
+        }
+    }
+
+    /**
+     * The {@code maya.payment.*} properties.
+     */
+    @Data
+    public static class Payment {
+
+        private Gateway gateway = new Gateway();
+    }
+
+    /**
+     * The {@code maya.payment.gateway.*} properties.
+     */
+    @Data
+    public static class Gateway {
+
+        private String url = "https://pg-sandbox.paymaya.com";
+    }
+
+    /**
+     * The {@code maya.connection.*} properties.
+     */
+    @Data
+    public static class Connection {
+
+        private Pool pool = new Pool();
+    }
+
+    /**
+     * The {@code maya.connection.pool.*} properties.
+     */
+    @Data
+    public static class Pool {
+
+        /**
+         * The name of the connection pool, which tags its gauges, so that it must differ between clients sharing a
+         * meter registry.
+         */
+        private String name = "maya";
+
+        private int maxConnections = 50;
+
+        private int pendingAcquireMaxCount = 1000;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        private Duration evictInBackground = Duration.ofSeconds(60);
+    }
+
+    /**
+     * The {@code maya.timeout.*} properties. The timeout of an {@link EndpointFamily} falls back to the response
+     * timeout.
+     */
+    @Data
+    public static class Timeout {
+
+        private Duration connect = Duration.ofSeconds(10);
+
+        private Duration response = Duration.ofSeconds(30);
+
+        private Duration checkout;
+
+        private Duration payments;
+
+        private Duration payBy;
+
+        private Duration webhooks;
+
+        private Duration customizations;
+
+        /**
+         * Returns the response timeout of the given {@link EndpointFamily}.
+         *
+         * @param family the {@link EndpointFamily}
+         * @return the {@link Duration}
+         */
+        public Duration getTimeout(EndpointFamily family) {
+            Duration timeout = switch (family) {
+                case CHECKOUT -> checkout;
+                case PAYMENTS -> payments;
+                case PAY_BY -> payBy;
+                case WEBHOOKS -> webhooks;
+                case CUSTOMIZATIONS -> customizations;
+            };
+
+            return timeout == null ? response : timeout;
+        }
+    }
+
+    /**
+     * The {@code maya.retry.*} properties.
+     */
+    @Data
+    public static class Retry {
+
+        private int maxAttempts = 1;
+
+        private Duration minBackoff = Duration.ofMillis(100);
+
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+        private double jitter = 0.5;
+    }
+
+    /**
+     * The {@code maya.circuit-breaker.*} properties.
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        private boolean enabled;
+
+        private float failureRateThreshold = 50;
+
+        private float slowCallRateThreshold = 100;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(10);
+
+        private int slidingWindowSize = 100;
+
+        private int minimumNumberOfCalls = 20;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        private int permittedNumberOfCallsInHalfOpenState = 5;
+    }
+
+    /**
+     * The {@code maya.concurrency-limit.*} properties.
+     */
+    @Data
+    public static class ConcurrencyLimit {
+
+        private boolean enabled;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        private double backoffRatio = 0.9;
+
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+
+        private int maxQueueSize = 100;
+
+        private Duration maxWait = Duration.ofSeconds(1);
+    }
+
+    /**
+     * The {@code maya.rate-limit.*} properties. The rate of an {@link EndpointFamily} falls back to
+     * {@code permits-per-second}.
+     */
+    @Data
+    public static class RateLimit {
+
+        private boolean enabled;
+
+        private double permitsPerSecond = 50;
+
+        private Double checkout;
+
+        private Double payments;
+
+        private Double payBy;
+
+        private Double webhooks;
+
+        private Double customizations;
+
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        /**
+         * Returns the permits per second of the given {@link EndpointFamily}.
+         *
+         * @param family the {@link EndpointFamily}
+         * @return the permits per second
+         */
+        public double getPermitsPerSecond(EndpointFamily family) {
+            Double permits = switch (family) {
+                case CHECKOUT -> checkout;
+                case PAYMENTS -> payments;
+                case PAY_BY -> payBy;
+                case WEBHOOKS -> webhooks;
+                case CUSTOMIZATIONS -> customizations;
+            };
+
+            return permits == null ? permitsPerSecond : permits;
+        }
+    }
+
+    /**
+     * The {@code maya.hedge.*} properties.
+     */
+    @Data
+    public static class Hedge {
+
+        private boolean enabled;
+
+        private double percentile = 95;
+
+        private Duration minDelay = Duration.ofMillis(50);
+
+        private double budgetPercent = 5;
+
+        private int windowSize = 1000;
+    }
+
+    /**
+     * The {@code maya.single-flight.*} properties.
+     */
+    @Data
+    public static class SingleFlight {
+
+        private boolean enabled;
+    }
+
+    /**
+     * The {@code maya.cache.*} properties.
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether to cache the payments, checkouts, voids and refunds that are looked up. Every caller receives the
+         * same cached response object, which must therefore not be modified.
+         */
+        private boolean enabled;
+
+        private long maximumSize = 10000;
+
+        private Duration terminalTtl = Duration.ofHours(1);
+
+        private Duration pendingTtl = Duration.ofSeconds(5);
+
+        private Duration revalidationTtl = Duration.ofHours(24);
+    }
+
+    /**
+     * The {@code maya.http.*} properties.
+     */
+    @Data
+    public static class Http {
+
+        private HttpTransport transport = HttpTransport.REACTOR_NETTY;
+
+        private HttpProtocolVersion protocol = HttpProtocolVersion.H1;
+    }
+
+    /**
+     * The {@code maya.codec.*} properties.
+     */
+    @Data
+    public static class Codec {
+
+        private DataSize maxInMemorySize = DataSize.ofKilobytes(256);
+    }
+
+    /**
+     * The {@code maya.compression.*} properties.
+     */
+    @Data
+    public static class Compression {
+
+        private boolean responseEnabled;
+
+        private boolean requestEnabled;
+
+        private DataSize requestThreshold = DataSize.ofKilobytes(2);
+    }
+
+    /**
+     * The {@code maya.warm-up.*} properties.
+     */
+    @Data
+    public static class WarmUp {
+
+        private boolean enabled;
+
+        private int connections;
+
+        private boolean wait;
+
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * The {@code maya.dns.*} properties. The time to live of a cached address is the one of its DNS record, bounded
+     * by the minimum and maximum.
+     */
+    @Data
+    public static class Dns {
+
+        private boolean enabled;
+
+        private Duration minTtl = Duration.ZERO;
+
+        private Duration maxTtl = Duration.ofMinutes(5);
+
+        private Duration negativeTtl = Duration.ZERO;
+    }
+
+    /**
+     * The {@code maya.tls.*} properties of the Reactor Netty transport. The client sessions are cached so that new
+     * connections to the payment gateway resume them instead of doing full handshakes.
+     */
+    @Data
+    public static class Tls {
+
+        private TlsProvider provider = TlsProvider.AUTO;
+
+        private long sessionCacheSize = 64;
+
+        private Duration sessionTimeout = Duration.ofHours(1);
+    }
+
+    /**
+     * The {@code maya.wire-log.*} properties. The wire logging is also enabled by the {@code local}, {@code dev} and
+     * {@code test} profiles.
+     */
+    @Data
+    public static class WireLog {
+
+        private boolean enabled;
+
+        private double sampleRate = 1.0;
+
+        private DataSize maxBodySize = DataSize.ofKilobytes(4);
+
+        private int queueSize = 1024;
+    }
+
+    /**
+     * The {@code maya.metrics.*} properties, which apply if Micrometer is on the classpath and the application has a
+     * meter registry.
+     */
+    @Data
+    public static class Metrics {
+
+        private boolean enabled = true;
+    }
+}
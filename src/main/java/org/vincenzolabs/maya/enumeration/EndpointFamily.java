@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.enumeration;
+
+/**
+ * The enumeration of Maya endpoint families, which can be configured independently of one another.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public enum EndpointFamily {
+
+    /**
+     * The checkout endpoints under {@code /checkout/v1/checkouts}.
+     */
+    CHECKOUT,
+    /**
+     * The payment, void and refund endpoints under {@code /payments/v1}.
+     */
+    PAYMENTS,
+    /**
+     * The single and recurring Maya wallet payment endpoints under {@code /payby/v2}.
+     */
+    PAY_BY,
+    /**
+     * The checkout and payment webhook endpoints.
+     */
+    WEBHOOKS,
+    /**
+     * The checkout UI customization endpoints under {@code /checkout/v1/customizations}.
+     */
+    CUSTOMIZATIONS
+}
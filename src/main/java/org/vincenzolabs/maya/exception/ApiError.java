@@ -25,6 +25,8 @@ import lombok.Builder;
 import lombok.Data;
 import org.springframework.http.HttpStatusCode;
 
+import java.time.Duration;
+
 /**
  * The API error.
  *
@@ -40,5 +42,7 @@ public class ApiError {
 
     private String reason;
 
+    private Duration retryAfter;
+
     private Throwable cause;
 }
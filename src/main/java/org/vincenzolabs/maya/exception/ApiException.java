@@ -25,6 +25,8 @@ import lombok.Getter;
 import lombok.ToString;
 import org.springframework.http.HttpStatusCode;
 
+import java.time.Duration;
+
 /**
  * The base API exception.
  *
@@ -48,11 +50,26 @@ public class ApiException extends RuntimeException {
      * @param cause  the {@link Throwable}
      */
     public ApiException(HttpStatusCode status, final String code, final String reason, Throwable cause) {
+        this(status, code, reason, null, cause);
+    }
+
+    /**
+     * Constructor for responses with a Retry-After header, e.g. 429 Too Many Requests.
+     *
+     * @param status     the {@link HttpStatusCode}
+     * @param code       the error code
+     * @param reason     the error message
+     * @param retryAfter the {@link Duration} to wait before sending another request
+     * @param cause      the {@link Throwable}
+     */
+    public ApiException(HttpStatusCode status, final String code, final String reason, Duration retryAfter,
+                        Throwable cause) {
         super(reason, cause);
         apiError = ApiError.builder()
                 .status(status)
                 .code(code)
                 .reason(reason)
+                .retryAfter(retryAfter)
                 .cause(cause)
                 .build();
     }
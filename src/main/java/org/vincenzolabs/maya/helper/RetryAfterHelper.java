@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.helper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The Retry-After header helper.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+public final class RetryAfterHelper {
+
+    /**
+     * Private constructor.
+     */
+    private RetryAfterHelper() {
+        // prevent instantiation
+    }
+
+    /**
+     * Returns the {@link Duration} to wait according to the given Retry-After header value.
+     *
+     * @param value the number of seconds or the HTTP date
+     * @return the {@link Duration}, or null if absent or invalid
+     */
+    public static Duration parse(final String value) {
+        return parse(value, Clock.systemUTC());
+    }
+
+    /**
+     * Returns the {@link Duration} to wait according to the given Retry-After header value.
+     *
+     * @param value the number of seconds or the HTTP date
+     * @param clock the {@link Clock} to compare the HTTP date with
+     * @return the {@link Duration}, or null if absent or invalid
+     */
+    public static Duration parse(final String value, Clock clock) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        String trimmed = value.trim();
+        try {
+            if (Character.isDigit(trimmed.charAt(0))) {
+                return Duration.ofSeconds(Long.parseLong(trimmed));
+            }
+
+            ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration duration = Duration.between(clock.instant(), date.toInstant());
+
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
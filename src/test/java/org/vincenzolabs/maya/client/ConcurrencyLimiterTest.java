@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link ConcurrencyLimiter}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class ConcurrencyLimiterTest {
+
+    @Test
+    void rejectWhenQueueIsFull() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1, 1, 1, 0.5, Duration.ofSeconds(1), 0,
+                Duration.ZERO);
+        Sinks.One<String> first = Sinks.one();
+
+        StepVerifier.create(limiter.limit(first.asMono()))
+                .then(() -> StepVerifier.create(limiter.limit(Mono.just("second")))
+                        .expectError(ApiRejectedException.class)
+                        .verify())
+                .then(() -> first.tryEmitValue("first"))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void waitForPermit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1, 1, 1, 0.5, Duration.ofSeconds(1), 1,
+                Duration.ofSeconds(1));
+        Sinks.One<String> first = Sinks.one();
+
+        StepVerifier.create(limiter.limit(first.asMono()))
+                .then(() -> StepVerifier.create(limiter.limit(Mono.just("second")))
+                        .then(() -> first.tryEmitValue("first"))
+                        .expectNext("second")
+                        .verifyComplete())
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void rejectWhenWaitElapses() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1, 1, 1, 0.5, Duration.ofSeconds(1), 1,
+                Duration.ofMillis(50));
+
+        limiter.limit(Mono.never()).subscribe();
+
+        StepVerifier.create(limiter.limit(Mono.just("second")))
+                .expectError(ApiRejectedException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(limiter.getInFlight()).isOne();
+    }
+
+    @Test
+    void timeoutWhenDeadlineExpiresBeforeWait() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1, 1, 1, 0.5, Duration.ofSeconds(1), 1,
+                Duration.ofSeconds(5));
+
+        limiter.limit(Mono.never()).subscribe();
+
+        StepVerifier.create(limiter.limit(Mono.just("second"), Deadline.after(Duration.ofMillis(50))))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(limiter.getInFlight()).isOne();
+    }
+
+    @Test
+    void increaseLimitOnFastCalls() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 2, 1, 10, 0.5, Duration.ofSeconds(1), 0,
+                Duration.ZERO);
+
+        StepVerifier.create(limiter.limit(Mono.just("fast")))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void decreaseLimitOnTransientErrors() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 8, 1, 10, 0.5, Duration.ofSeconds(1), 0,
+                Duration.ZERO);
+
+        StepVerifier.create(limiter.limit(Mono.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, null, null,
+                        null))))
+                .expectError(ApiException.class)
+                .verify();
+        StepVerifier.create(limiter.limit(Mono.error(new ApiException(HttpStatus.BAD_REQUEST, null, null, null))))
+                .expectError(ApiException.class)
+                .verify();
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+}
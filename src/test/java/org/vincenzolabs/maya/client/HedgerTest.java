@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link Hedger}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class HedgerTest {
+
+    @Test
+    void delayByPercentileOfLatencies() {
+        Hedger hedger = new Hedger(90, Duration.ofMillis(5), 5, 10);
+
+        assertThat(hedger.getDelay()).isNull();
+        for (int i = 1; i <= 10; i++) {
+            hedger.record(Duration.ofMillis(i * 10).toNanos());
+        }
+
+        assertThat(hedger.getDelay()).isEqualTo(Duration.ofMillis(90));
+    }
+
+    @Test
+    void keepFirstAnswer() {
+        Hedger hedger = new Hedger(50, Duration.ZERO, 100, 10);
+        hedger.record(Duration.ofMillis(10).toNanos());
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<Integer> attempt = Mono.defer(() -> {
+            int count = attempts.incrementAndGet();
+            return Mono.just(count).delayElement(count == 1 ? Duration.ofSeconds(5) : Duration.ZERO);
+        });
+
+        StepVerifier.create(hedger.hedge(attempt))
+                .expectNext(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void keepFirstAnswerWhenHedgeFails() {
+        Hedger hedger = new Hedger(50, Duration.ZERO, 100, 10);
+        hedger.record(Duration.ofMillis(10).toNanos());
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<Integer> attempt = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.just(1).delayElement(Duration.ofMillis(300))
+                : Mono.error(new IllegalStateException("Rejected")));
+
+        StepVerifier.create(hedger.hedge(attempt))
+                .expectNext(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void failWhenBothAttemptsFail() {
+        Hedger hedger = new Hedger(50, Duration.ZERO, 100, 10);
+        hedger.record(Duration.ofMillis(10).toNanos());
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<Integer> attempt = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.<Integer>error(new IllegalStateException("Slow")).delaySubscription(Duration.ofMillis(300))
+                : Mono.error(new IllegalStateException("Rejected")));
+
+        StepVerifier.create(hedger.hedge(attempt))
+                .expectErrorMessage("Slow")
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void failFastBeforeHedging() {
+        Hedger hedger = new Hedger(50, Duration.ofSeconds(5), 100, 10);
+        hedger.record(Duration.ofMillis(10).toNanos());
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<Integer> attempt = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("Failed"));
+        });
+
+        StepVerifier.create(hedger.hedge(attempt))
+                .expectErrorMessage("Failed")
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void doNotHedgeBeyondBudget() {
+        Hedger hedger = new Hedger(50, Duration.ZERO, 50, 10);
+        hedger.record(Duration.ofMillis(10).toNanos());
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<Integer> attempt = Mono.defer(() -> Mono.just(attempts.incrementAndGet())
+                .delayElement(Duration.ofMillis(100)));
+
+        StepVerifier.create(hedger.hedge(attempt))
+                .expectNext(1)
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(1);
+    }
+}
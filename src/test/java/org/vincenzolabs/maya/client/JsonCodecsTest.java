@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.vincenzolabs.maya.dto.CheckoutRequest;
+import org.vincenzolabs.maya.dto.Customer;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.enumeration.PaymentStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The test case for {@link JsonCodecs}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class JsonCodecsTest {
+
+    private static final String PAYMENT = "{\"id\":\"b6b4a3d4-9fdb-4a0b-9a4e-7c4d1c3c6b55\","
+            + "\"status\":\"PAYMENT_SUCCESS\",\"createdAt\":\"2023-03-21T02:13:51.000Z\",\"unknown\":true}";
+
+    private final ObjectMapper objectMapper = JsonCodecs.createObjectMapper();
+
+    @Test
+    void registerModules() {
+        assertThat(objectMapper.getRegisteredModuleIds())
+                .anySatisfy(id -> assertThat(id.toString()).contains("jsr310"))
+                .anySatisfy(id -> assertThat(id.toString()).contains("Blackbird"));
+    }
+
+    @Test
+    void decodeResponse() {
+        Jackson2JsonDecoder decoder = JsonCodecs.createDecoder(objectMapper, 1024);
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(decode(decoder, PAYMENT))
+                    .assertNext(response -> {
+                        assertThat(response.getStatus()).isEqualTo(PaymentStatus.PAYMENT_SUCCESS);
+                        assertThat(response.getCreatedAt())
+                                .isEqualTo(OffsetDateTime.of(2023, 3, 21, 2, 13, 51, 0, ZoneOffset.UTC));
+                    })
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    void limitResponseSize() {
+        Jackson2JsonDecoder decoder = JsonCodecs.createDecoder(objectMapper, 64);
+
+        StepVerifier.create(decode(decoder, PAYMENT))
+                .expectErrorMatches(throwable -> throwable instanceof DataBufferLimitException
+                        || throwable instanceof DecodingException
+                        && throwable.getCause() instanceof DataBufferLimitException)
+                .verify();
+    }
+
+    @Test
+    void encodeRequest() {
+        Jackson2JsonEncoder encoder = JsonCodecs.createEncoder(objectMapper);
+        Customer customer = Customer.builder()
+                .firstName("John")
+                .birthday(LocalDate.of(1995, 10, 24))
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            DataBuffer buffer = encoder.encodeValue(customer, DefaultDataBufferFactory.sharedInstance,
+                    ResolvableType.forClass(Customer.class), MediaType.APPLICATION_JSON, Collections.emptyMap());
+            String json = buffer.toString(StandardCharsets.UTF_8);
+            DataBufferUtils.release(buffer);
+
+            assertThat(json).isEqualTo("{\"firstName\":\"John\",\"birthday\":\"1995-10-24\"}");
+        }
+    }
+
+    @Test
+    void encodeIntoPooledBuffer() {
+        Jackson2JsonEncoder encoder = JsonCodecs.createEncoder(objectMapper);
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        Customer customer = Customer.builder()
+                .firstName("J".repeat(4096))
+                .build();
+
+        DataBuffer buffer = encoder.encodeValue(customer, bufferFactory, ResolvableType.forClass(Customer.class),
+                MediaType.APPLICATION_JSON, Collections.emptyMap());
+
+        assertThat(buffer).isInstanceOf(NettyDataBuffer.class);
+        ByteBuf byteBuf = ((NettyDataBuffer) buffer).getNativeBuffer();
+        assertThat(byteBuf.alloc()).isSameAs(PooledByteBufAllocator.DEFAULT);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("{\"firstName\":\"" + "J".repeat(4096) + "\"}");
+        assertThat(DataBufferUtils.release(buffer)).isTrue();
+        assertThat(byteBuf.refCnt()).isZero();
+    }
+
+    @Test
+    void releaseBufferWhenEncodingFails() {
+        Jackson2JsonEncoder encoder = JsonCodecs.createEncoder(objectMapper);
+        List<NettyDataBuffer> buffers = new ArrayList<>();
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT) {
+            @Override
+            public NettyDataBuffer allocateBuffer(int initialCapacity) {
+                NettyDataBuffer buffer = super.allocateBuffer(initialCapacity);
+                buffers.add(buffer);
+                return buffer;
+            }
+        };
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("self", metadata);
+        CheckoutRequest request = CheckoutRequest.builder()
+                .metadata(metadata)
+                .build();
+
+        assertThatThrownBy(() -> encoder.encodeValue(request, bufferFactory,
+                ResolvableType.forClass(CheckoutRequest.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .isInstanceOf(EncodingException.class);
+        assertThat(buffers).singleElement()
+                .satisfies(buffer -> assertThat(buffer.getNativeBuffer().refCnt()).isZero());
+    }
+
+    /**
+     * Decodes the given JSON received in chunks of 32 bytes.
+     */
+    private Mono<PaymentResponse> decode(Jackson2JsonDecoder decoder, String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Flux<DataBuffer> buffers = Flux.range(0, (bytes.length + 31) / 32)
+                .map(i -> DefaultDataBufferFactory.sharedInstance
+                        .wrap(Arrays.copyOfRange(bytes, i * 32, Math.min(bytes.length, (i + 1) * 32))));
+
+        return decoder.decodeToMono(buffers, ResolvableType.forClass(PaymentResponse.class),
+                        MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .cast(PaymentResponse.class);
+    }
+}
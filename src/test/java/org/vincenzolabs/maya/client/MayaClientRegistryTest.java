@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import org.vincenzolabs.maya.helper.AuthorizationHelper;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link MayaClientRegistry}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class MayaClientRegistryTest {
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    private DisposableServer server;
+
+    private MayaProperties properties;
+
+    private MayaV1Client client;
+
+    private MayaClientRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connections.incrementAndGet())
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> {
+                            authorizations.add(request.requestHeaders().get("Authorization"));
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("paymentId") + "\"}"));
+                        }))
+                .bindNow();
+
+        properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("http://localhost:" + server.port());
+        properties.getKey().setSecret("sk-default");
+        properties.getConnection().getPool().setMaxConnections(1);
+        client = new MayaV1Client(properties, null, null);
+        registry = new MayaClientRegistry(client);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    void shareConnectionPoolAcrossMerchants() {
+        registry.register("first", "pk-first", "sk-first");
+        registry.register("second", "pk-second", "sk-second");
+
+        for (String merchantId : List.of("first", "second")) {
+            registry.getClient(merchantId)
+                    .map(merchantClient -> merchantClient.retrievePaymentByPaymentId(UUID.randomUUID().toString()))
+                    .orElseThrow()
+                    .block();
+        }
+        client.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+
+        assertThat(authorizations).containsExactly(AuthorizationHelper.getAuthorization("sk-first"),
+                AuthorizationHelper.getAuthorization("sk-second"), AuthorizationHelper.getAuthorization("sk-default"));
+        assertThat(connections).hasValue(1);
+    }
+
+    @Test
+    void keepCachedResponsesOfKeysStillInUse() {
+        properties.getCache().setEnabled(true);
+        properties.getCache().setPendingTtl(Duration.ofHours(1));
+        client = new MayaV1Client(properties, null, null);
+        registry = new MayaClientRegistry(client);
+        String paymentId = UUID.randomUUID().toString();
+
+        registry.register("first", "pk-shared", "sk-shared").retrievePaymentByPaymentId(paymentId).block();
+        registry.register("second", "pk-shared", "sk-shared");
+        registry.register("first", "pk-shared", "sk-shared");
+        registry.unregister("first");
+        registry.getClient("second").orElseThrow().retrievePaymentByPaymentId(paymentId).block();
+        assertThat(authorizations).hasSize(1);
+
+        registry.unregister("second");
+        registry.register("third", "pk-shared", "sk-shared").retrievePaymentByPaymentId(paymentId).block();
+        assertThat(authorizations).hasSize(2);
+    }
+
+    @Test
+    void limitMerchantToItsOwnRate() {
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setMaxWait(Duration.ofMillis(10));
+        client = new MayaV1Client(properties, null, null);
+        registry = new MayaClientRegistry(client);
+        MayaV1Client batchClient = registry.register("batch", "pk-batch", "sk-batch", 1.0);
+        MayaV1Client merchantClient = registry.register("merchant", "pk-merchant", "sk-merchant");
+
+        batchClient.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+        StepVerifier.create(batchClient.retrievePaymentByPaymentId(UUID.randomUUID().toString()))
+                .expectError(ApiRejectedException.class)
+                .verify(Duration.ofSeconds(5));
+
+        merchantClient.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+        merchantClient.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+        assertThat(authorizations).hasSize(3);
+    }
+
+    @Test
+    void unregisterMerchant() {
+        registry.register("first", "pk-first", "sk-first");
+        assertThat(registry.getMerchantIds()).containsExactly("first");
+
+        assertThat(registry.unregister("first")).isTrue();
+
+        assertThat(registry.unregister("first")).isFalse();
+        assertThat(registry.getClient("first")).isEmpty();
+        assertThat(registry.getMerchantIds()).isEmpty();
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.dto.RefundRequest;
+import org.vincenzolabs.maya.enumeration.HttpTransport;
+import org.vincenzolabs.maya.exception.ApiException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link MayaMetrics}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class MayaMetricsTest {
+
+    private static final String NOT_FOUND_PAYMENT_ID = "0c1b2b1e-8f55-4a3c-9f0e-7d1a9a5b3c2d";
+
+    private static final String SLOW_PAYMENT_ID = "8bd3a2b0-4d84-4f35-a1bb-3a6c5c1f0f43";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final Sinks.Empty<Void> slowResponse = Sinks.empty();
+
+    private DisposableServer server;
+
+    private MayaV1Client client;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> {
+                            if (NOT_FOUND_PAYMENT_ID.equals(request.param("paymentId"))) {
+                                return response.status(HttpResponseStatus.NOT_FOUND)
+                                        .header("Content-Type", "application/json")
+                                        .sendString(Mono.just("{\"code\":\"PY0009\",\"message\":\"Not found\"}"));
+                            }
+                            Mono<Void> delay = SLOW_PAYMENT_ID.equals(request.param("paymentId"))
+                                    ? slowResponse.asMono() : Mono.empty();
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(delay.then(Mono.just("{\"id\":\"" + request.param("paymentId")
+                                            + "\",\"status\":\"PAYMENT_SUCCESS\"}")));
+                        })
+                        .post("/payments/v1/payments/{paymentId}/refunds", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(request.receive()
+                                        .aggregate()
+                                        .asString()
+                                        .thenReturn("{\"reason\":\"Item out of stock\"}"))))
+                .bindNow();
+
+        MayaProperties properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("http://localhost:" + server.port());
+        properties.getKey().setSecret("sk-metrics");
+        properties.getConnection().getPool().setMaxConnections(1);
+        client = new MayaV1Client(properties, null, null, new MayaMetrics(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    void timeRequestsByOperation() {
+        StepVerifier.create(client.retrievePaymentByPaymentId(UUID.randomUUID().toString()))
+                .expectNextCount(1)
+                .verifyComplete();
+        awaitGauge(MayaMetrics.ACTIVE_REQUESTS, 0);
+
+        Timer timer = registry.get(MayaMetrics.REQUESTS)
+                .tags("operation", "retrievePaymentByPaymentId", "family", "payments", "outcome", "SUCCESS",
+                        "status", "200", "code", "none", "exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(registry.getMeters())
+                .allSatisfy(meter -> assertThat(meter.getId().getTags())
+                        .noneMatch(tag -> tag.getValue().contains("-")));
+    }
+
+    @Test
+    void tagStatusAndCodeOfErrors() {
+        StepVerifier.create(client.retrievePaymentByPaymentId(NOT_FOUND_PAYMENT_ID))
+                .expectError(ApiException.class)
+                .verify();
+        awaitGauge(MayaMetrics.ACTIVE_REQUESTS, 0);
+
+        assertThat(registry.get(MayaMetrics.REQUESTS)
+                .tags("operation", "retrievePaymentByPaymentId", "outcome", "CLIENT_ERROR", "status", "404",
+                        "code", "PY0009", "exception", "ApiException")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void countBytes() {
+        StepVerifier.create(client.refundPaymentByPaymentId(UUID.randomUUID().toString(),
+                        RefundRequest.builder().reason("Item out of stock").build()))
+                .expectNextCount(1)
+                .verifyComplete();
+        awaitGauge(MayaMetrics.ACTIVE_REQUESTS, 0);
+
+        assertThat(registry.get(MayaMetrics.REQUEST_BYTES)
+                .tags("operation", "refundPaymentByPaymentId")
+                .counter()
+                .count()).isEqualTo("{\"reason\":\"Item out of stock\"}".length());
+        assertThat(registry.get(MayaMetrics.RESPONSE_BYTES)
+                .tags("operation", "refundPaymentByPaymentId")
+                .counter()
+                .count()).isEqualTo("{\"reason\":\"Item out of stock\"}".length());
+        assertThat(registry.get("maya.client.compression.request.bytes").functionCounters()).hasSize(2);
+    }
+
+    @Test
+    void gaugeRequestsInFlightAndPool() {
+        Mono<?> slow = client.retrievePaymentByPaymentId(SLOW_PAYMENT_ID).cache();
+        slow.subscribe();
+        Gauge active = awaitGauge(MayaMetrics.ACTIVE_REQUESTS, 1);
+        // the connection is only acquired once connected, until then the request is pending
+        awaitGauge(ReactorNettyPoolMetrics.POOL_ACTIVE, 1);
+        Gauge pending = awaitGauge(ReactorNettyPoolMetrics.POOL_PENDING, 0);
+
+        Mono<?> queued = client.retrievePaymentByPaymentId(UUID.randomUUID().toString()).cache();
+        queued.subscribe();
+        awaitGauge(ReactorNettyPoolMetrics.POOL_PENDING, 1);
+        assertThat(active.value()).isEqualTo(2);
+        assertThat(registry.get(ReactorNettyPoolMetrics.POOL_ACTIVE).gauge().value()).isEqualTo(1);
+
+        slowResponse.tryEmitEmpty();
+        StepVerifier.create(queued)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // the request is recorded, and its connection released, after its response is emitted
+        awaitGauge(MayaMetrics.ACTIVE_REQUESTS, 0);
+        assertThat(pending.value()).isZero();
+        awaitGauge(ReactorNettyPoolMetrics.POOL_ACTIVE, 0);
+        awaitGauge(ReactorNettyPoolMetrics.POOL_IDLE, 1);
+    }
+
+    @Test
+    void gaugePoolsOfClientsSeparately() {
+        MayaProperties properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("http://localhost:" + server.port());
+        properties.getKey().setSecret("sk-batch");
+        properties.getConnection().getPool().setName("maya-batch");
+        MayaV1Client batchClient = new MayaV1Client(properties, null, null, new MayaMetrics(registry));
+        try {
+            client.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+            batchClient.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+
+            for (String pool : List.of("maya", "maya-batch")) {
+                Mono.fromSupplier(() -> registry.find(ReactorNettyPoolMetrics.POOL_IDLE).tag("pool", pool).gauge())
+                        .filter(gauge -> gauge.value() == 1)
+                        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+                        .block(Duration.ofSeconds(5));
+            }
+            assertThat(registry.find(ReactorNettyPoolMetrics.POOL_IDLE).gauges()).hasSize(2);
+        } finally {
+            batchClient.destroy();
+        }
+    }
+
+    @Test
+    void recordRequestsWithoutReactorNetty() throws Exception {
+        try (URLClassLoader classLoader = new WithoutReactorNettyClassLoader()) {
+            @SuppressWarnings("unchecked")
+            Callable<Long> request = (Callable<Long>) classLoader.loadClass(JdkTransportRequest.class.getName())
+                    .getConstructor(String.class)
+                    .newInstance("http://localhost:" + server.port());
+
+            assertThat(request.call()).isOne();
+        }
+    }
+
+    private Gauge awaitGauge(String name, double value) {
+        return Mono.fromSupplier(() -> registry.find(name).gauge())
+                .filter(gauge -> gauge.value() == value)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+                .block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * The {@link ClassLoader} of the test classpath without Netty and Reactor Netty, as if the application excluded
+     * them to use the JDK transport.
+     */
+    private static final class WithoutReactorNettyClassLoader extends URLClassLoader {
+
+        WithoutReactorNettyClassLoader() {
+            super(getClassPath(), ClassLoader.getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith("io.netty.") || name.startsWith("reactor.netty.")) {
+                throw new ClassNotFoundException(name);
+            }
+
+            return super.loadClass(name, resolve);
+        }
+
+        private static URL[] getClassPath() {
+            return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                    .map(path -> {
+                        try {
+                            return Path.of(path).toUri().toURL();
+                        } catch (MalformedURLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .toArray(URL[]::new);
+        }
+    }
+
+    /**
+     * The request with the JDK transport whose metrics are recorded, loaded by the
+     * {@link WithoutReactorNettyClassLoader}.
+     */
+    public static final class JdkTransportRequest implements Callable<Long> {
+
+        private final String paymentGatewayUrl;
+
+        public JdkTransportRequest(final String paymentGatewayUrl) {
+            this.paymentGatewayUrl = paymentGatewayUrl;
+        }
+
+        @Override
+        public Long call() {
+            MayaProperties properties = new MayaProperties();
+            properties.getPayment().getGateway().setUrl(paymentGatewayUrl);
+            properties.getHttp().setTransport(HttpTransport.JDK);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            MayaV1Client client = new MayaV1Client(properties, null, null, new MayaMetrics(registry));
+            try {
+                client.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block(Duration.ofSeconds(5));
+
+                return Mono.fromSupplier(() -> registry.find(MayaMetrics.REQUESTS).timer())
+                        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+                        .map(Timer::count)
+                        .block(Duration.ofSeconds(5));
+            } finally {
+                client.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.dto.RefundRequest;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiTimeoutException;
+import org.vincenzolabs.maya.helper.AuthorizationHelper;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The contract every {@link MayaTransport} must fulfil, verified against a local stub of the payment gateway.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+abstract class MayaTransportContractTest {
+
+    private static final String NOT_FOUND_PAYMENT_ID = "0c1b2b1e-8f55-4a3c-9f0e-7d1a9a5b3c2d";
+
+    private static final String SLOW_PAYMENT_ID = "8bd3a2b0-4d84-4f35-a1bb-3a6c5c1f0f43";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private DisposableServer server;
+
+    private MayaTransport transport;
+
+    private MayaProperties properties;
+
+    private MayaV1Client client;
+
+    /**
+     * Creates the {@link MayaTransport} under test.
+     *
+     * @return the {@link MayaTransport}
+     */
+    abstract MayaTransport createTransport();
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> {
+                            requests.add(request.method() + " " + request.requestHeaders().get("Authorization"));
+                            if (NOT_FOUND_PAYMENT_ID.equals(request.param("paymentId"))) {
+                                return response.status(HttpResponseStatus.NOT_FOUND)
+                                        .header("Content-Type", "application/json")
+                                        .sendString(Mono.just("{\"code\":\"PY0009\",\"message\":\"Not found\"}"));
+                            }
+                            Duration delay = SLOW_PAYMENT_ID.equals(request.param("paymentId"))
+                                    ? Duration.ofSeconds(2) : Duration.ZERO;
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("paymentId")
+                                            + "\",\"status\":\"PAYMENT_SUCCESS\"}").delayElement(delay));
+                        })
+                        .get("/payments/v1/payments/{paymentId}/refunds", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("[{\"reason\":\"first\"},{\"reason\":\"second\"}]")))
+                        .post("/payments/v1/payments/{paymentId}/refunds", (request, response) -> request
+                                .receive()
+                                .then(response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                                        .header("Retry-After", "3")
+                                        .send()
+                                        .then())))
+                .bindNow();
+
+        properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("http://localhost:" + server.port());
+        properties.getKey().setSecret("sk-contract");
+        transport = createTransport();
+        client = new MayaV1Client(properties, transport, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+        transport.dispose();
+        server.disposeNow();
+    }
+
+    @Test
+    void retrieveResponse() {
+        UUID paymentId = UUID.randomUUID();
+
+        StepVerifier.create(client.retrievePaymentByPaymentId(paymentId.toString()))
+                .assertNext(response -> assertThat(response.getId()).isEqualTo(paymentId))
+                .verifyComplete();
+
+        assertThat(requests).containsExactly("GET " + AuthorizationHelper.getAuthorization("sk-contract"));
+    }
+
+    @Test
+    void retrieveResponses() {
+        StepVerifier.create(client.retrieveRefunds(UUID.randomUUID().toString()))
+                .assertNext(response -> assertThat(response.getReason()).isEqualTo("first"))
+                .assertNext(response -> assertThat(response.getReason()).isEqualTo("second"))
+                .verifyComplete();
+    }
+
+    @Test
+    void mapErrorResponse() {
+        StepVerifier.create(client.retrievePaymentByPaymentId(NOT_FOUND_PAYMENT_ID))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ApiException.class)
+                        .extracting("apiError.status", "apiError.code")
+                        .containsExactly(HttpStatus.NOT_FOUND, "PY0009"))
+                .verify();
+    }
+
+    @Test
+    void keepRetryAfterOfEmptyErrorResponse() {
+        StepVerifier.create(client.refundPaymentByPaymentId(UUID.randomUUID().toString(),
+                        RefundRequest.builder().reason("Item out of stock").build()))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ApiException.class)
+                        .extracting("apiError.status", "apiError.retryAfter")
+                        .containsExactly(HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(3)))
+                .verify();
+    }
+
+    @Test
+    void timeoutSlowResponse() {
+        properties.getTimeout().setPayments(Duration.ofMillis(200));
+        client = new MayaV1Client(properties, transport, null);
+
+        StepVerifier.create(client.retrievePaymentByPaymentId(SLOW_PAYMENT_ID))
+                .expectError(ApiTimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.exception.ApiException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The test case for {@link MayaV1BlockingClient}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class MayaV1BlockingClientTest {
+
+    private DisposableServer server;
+
+    private MayaV1Client client;
+
+    private MayaV1BlockingClient blockingClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"id\":\"" + request.param("paymentId") + "\"}")))
+                        .get("/payments/v1/payments/{paymentId}/refunds", (request, response) -> response
+                                .status(HttpResponseStatus.NOT_FOUND)
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"code\":\"PY0009\",\"message\":\"Payment not found\"}"))))
+                .bindNow();
+
+        MayaProperties properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("http://localhost:" + server.port());
+        client = new MayaV1Client(properties, null, null);
+        blockingClient = new MayaV1BlockingClient(client);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    void retrievePaymentsOnTaskExecutor() throws Exception {
+        List<UUID> paymentIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<Callable<PaymentResponse>> tasks = paymentIds.stream()
+                .<Callable<PaymentResponse>>map(paymentId -> () ->
+                        blockingClient.retrievePaymentByPaymentId(paymentId.toString()))
+                .toList();
+
+        ExecutorService executor = MayaV1BlockingClient.newTaskExecutor(2);
+        try {
+            for (Future<PaymentResponse> future : executor.invokeAll(tasks)) {
+                assertThat(paymentIds).contains(future.get().getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void boundPlatformThreadsBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21, "virtual threads are not pooled");
+
+        ExecutorService executor = MayaV1BlockingClient.newTaskExecutor(2);
+        try {
+            assertThat(executor).isInstanceOfSatisfying(ThreadPoolExecutor.class, pool -> {
+                assertThat(pool.getMaximumPoolSize()).isEqualTo(2);
+                assertThat(pool.allowsCoreThreadTimeOut()).isTrue();
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectNonPositiveMaxThreads() {
+        assertThatThrownBy(() -> MayaV1BlockingClient.newTaskExecutor(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void throwApiException() {
+        assertThatThrownBy(() -> blockingClient.retrieveRefunds(UUID.randomUUID().toString()))
+                .isInstanceOf(ApiException.class)
+                .extracting("apiError.status", "apiError.code")
+                .containsExactly(HttpStatus.NOT_FOUND, "PY0009");
+    }
+}
@@ -21,7 +21,42 @@
  */
 package org.vincenzolabs.maya.client;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.dto.RefundRequest;
+import org.vincenzolabs.maya.dto.RefundResponse;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+import org.vincenzolabs.maya.enumeration.HttpProtocolVersion;
+import org.vincenzolabs.maya.enumeration.PaymentStatus;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import org.vincenzolabs.maya.exception.ApiTimeoutException;
+import org.vincenzolabs.maya.helper.AuthorizationHelper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * The test case for {@link MayaV1Client}.
@@ -30,6 +65,598 @@ import org.junit.jupiter.api.Test;
  */
 class MayaV1ClientTest {
 
+    private static final RefundRequest REFUND_REQUEST = RefundRequest.builder()
+            .reason("Item out of stock")
+            .build();
+
+    private static final int REFUND_COUNT = 100_000;
+
+    private static final String SLOW_PAYMENT_ID = "8bd3a2b0-4d84-4f35-a1bb-3a6c5c1f0f43";
+
+    private static final String SETTLED_PAYMENT_ID = "5f0e7f6c-2b1d-4c3a-9e8f-7a6b5c4d3e2f";
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Set<String> versions = ConcurrentHashMap.newKeySet();
+
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger unavailableResponses = new AtomicInteger();
+
+    private final AtomicInteger throttledResponses = new AtomicInteger();
+
+    private final AtomicInteger delayedResponses = new AtomicInteger();
+
+    private final List<String> paymentIds = new CopyOnWriteArrayList<>();
+
+    private final List<String> linkIds = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    private final AtomicInteger streamedRefunds = new AtomicInteger();
+
+    private final List<String> webhookAuthorizations = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean refundStreamCancelled = new AtomicBoolean();
+
+    private DisposableServer server;
+
+    private MayaProperties properties;
+
+    private MayaV1Client client;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .compress(1024)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connections.incrementAndGet())
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> {
+                            // HTTP/2 streams are converted to HTTP/1.1 objects tagged with the stream ID
+                            versions.add(request.requestHeaders().contains("x-http2-stream-id")
+                                    ? "HTTP/2.0" : request.version().text());
+                            paymentIds.add(request.param("paymentId"));
+                            Duration delay = SLOW_PAYMENT_ID.equals(request.param("paymentId"))
+                                    || delayedResponses.getAndDecrement() > 0 ? Duration.ofSeconds(2) : Duration.ZERO;
+                            String eTag = "\"" + request.param("paymentId") + "\"";
+                            if (eTag.equals(request.requestHeaders().get("If-None-Match"))) {
+                                notModifiedResponses.incrementAndGet();
+                                return response.status(HttpResponseStatus.NOT_MODIFIED)
+                                        .header("ETag", eTag)
+                                        .send();
+                            }
+                            String status = SETTLED_PAYMENT_ID.equals(request.param("paymentId"))
+                                    ? ",\"status\":\"PAYMENT_SUCCESS\"" : "";
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .header("ETag", eTag)
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("paymentId") + "\"" + status
+                                            + "}").delayElement(delay));
+                        })
+                        .get("/payments/v1/payments/{paymentId}/refunds", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Flux.range(0, REFUND_COUNT)
+                                        .map(i -> (i == 0 ? "[" : ",") + "{\"id\":\"" + new UUID(0, i)
+                                                + "\",\"status\":\"SUCCESS\"}")
+                                        .doOnNext(element -> streamedRefunds.incrementAndGet())
+                                        .doOnCancel(() -> refundStreamCancelled.set(true))
+                                        .concatWithValues("]")))
+                        .get("/payby/v2/paymaya/link/{linkId}", (request, response) -> {
+                            linkIds.add(request.param("linkId"));
+                            Duration delay = delayedResponses.getAndDecrement() > 0
+                                    ? Duration.ofSeconds(2) : Duration.ZERO;
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{}").delayElement(delay));
+                        })
+                        .get("/checkout/v1/webhooks", (request, response) -> {
+                            webhookAuthorizations.add(request.requestHeaders().get("Authorization"));
+                            Duration delay = delayedResponses.getAndDecrement() > 0
+                                    ? Duration.ofSeconds(2) : Duration.ZERO;
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("[]").delayElement(delay));
+                        })
+                        .post("/payments/v1/payments/{paymentId}/refunds", (request, response) -> {
+                            idempotencyKeys.add(request.requestHeaders().get("X-Idempotency-Key"));
+                            if (throttledResponses.getAndDecrement() > 0) {
+                                return response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                                        .header("Retry-After", "1")
+                                        .send();
+                            }
+                            if (unavailableResponses.getAndDecrement() > 0) {
+                                return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE)
+                                        .header("Content-Type", "application/json")
+                                        .sendString(Mono.just("{\"code\":\"PY0000\",\"message\":\"Unavailable\"}"));
+                            }
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"payment\":\"" + request.param("paymentId") + "\"}"));
+                        }))
+                .bindNow();
+
+        properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("http://localhost:" + server.port());
+        properties.getConnection().getPool().setMaxConnections(1);
+        client = new MayaV1Client(properties, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    void reusePooledConnection() {
+        UUID paymentId = UUID.randomUUID();
+
+        for (int i = 0; i < 3; i++) {
+            PaymentResponse response = client.retrievePaymentByPaymentId(paymentId.toString()).block();
+
+            assertThat(response).isNotNull();
+            assertThat(response.getId()).isEqualTo(paymentId);
+        }
+        assertThat(connections).hasValue(1);
+        assertThat(versions).containsExactly("HTTP/1.1");
+    }
+
+    @Test
+    void multiplexHttp2() {
+        properties.getHttp().setProtocol(HttpProtocolVersion.H2);
+        client = new MayaV1Client(properties, null, null);
+
+        Long count = Flux.range(0, 10)
+                .flatMap(i -> client.retrievePaymentByPaymentId(UUID.randomUUID().toString()))
+                .count()
+                .block();
+
+        assertThat(count).isEqualTo(10);
+        assertThat(connections).hasValue(1);
+        assertThat(versions).containsExactly("HTTP/2.0");
+    }
+
+    @Test
+    void timeoutSlowGateway() {
+        properties.getTimeout().setPayments(Duration.ofMillis(200));
+        client = new MayaV1Client(properties, null, null);
+
+        StepVerifier.create(client.retrievePaymentByPaymentId(SLOW_PAYMENT_ID))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ApiTimeoutException.class)
+                        .extracting("timeout")
+                        .isEqualTo(Duration.ofMillis(200)))
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void deadlineCapsTimeout() {
+        properties.getTimeout().setPayments(Duration.ofSeconds(10));
+        client = new MayaV1Client(properties, null, null);
+
+        StepVerifier.create(client.retrievePaymentByPaymentId(SLOW_PAYMENT_ID)
+                        .contextWrite(Deadline.after(Duration.ofMillis(200)).toContext()))
+                .expectError(ApiTimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void deadlineExpiresWhileQueued() {
+        properties.getTimeout().setPayments(Duration.ofSeconds(10));
+        properties.getConcurrencyLimit().setEnabled(true);
+        properties.getConcurrencyLimit().setInitialLimit(1);
+        properties.getConcurrencyLimit().setMinLimit(1);
+        properties.getConcurrencyLimit().setMaxLimit(1);
+        properties.getConcurrencyLimit().setBackoffRatio(0.9d);
+        properties.getConcurrencyLimit().setLatencyThreshold(Duration.ofSeconds(10));
+        properties.getConcurrencyLimit().setMaxQueueSize(10);
+        properties.getConcurrencyLimit().setMaxWait(Duration.ofSeconds(10));
+        client = new MayaV1Client(properties, null, null);
+        client.retrievePaymentByPaymentId(SLOW_PAYMENT_ID).subscribe();
+        Mono.fromSupplier(paymentIds::size)
+                .filter(size -> size == 1)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+                .block(Duration.ofSeconds(5));
+
+        StepVerifier.create(client.retrievePaymentByPaymentId(UUID.randomUUID().toString())
+                        .contextWrite(Deadline.after(Duration.ofMillis(200)).toContext()))
+                .expectError(ApiTimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(paymentIds).containsExactly(SLOW_PAYMENT_ID);
+    }
+
+    @Test
+    void expiredDeadlineSkipsRequest() {
+        StepVerifier.create(client.retrievePaymentByPaymentId(UUID.randomUUID().toString())
+                        .contextWrite(Deadline.after(Duration.ZERO).toContext()))
+                .expectError(ApiTimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(connections).hasValue(0);
+    }
+
+    @Test
+    void retryWithSameIdempotencyKey() {
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setMinBackoff(Duration.ofMillis(10));
+        client = new MayaV1Client(properties, null, null);
+        unavailableResponses.set(2);
+        UUID paymentId = UUID.randomUUID();
+
+        RefundResponse response = client.refundPaymentByPaymentId(paymentId.toString(), REFUND_REQUEST).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getPayment()).isEqualTo(paymentId);
+        assertThat(idempotencyKeys).hasSize(3);
+        assertThat(Set.copyOf(idempotencyKeys)).hasSize(1);
+    }
+
+    @Test
+    void propagateErrorWhenRetriesExhausted() {
+        properties.getRetry().setMaxAttempts(2);
+        properties.getRetry().setMinBackoff(Duration.ofMillis(10));
+        client = new MayaV1Client(properties, null, null);
+        unavailableResponses.set(2);
+
+        StepVerifier.create(client.refundPaymentByPaymentId(UUID.randomUUID().toString(), REFUND_REQUEST))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ApiException.class)
+                        .extracting("apiError.code")
+                        .isEqualTo("PY0000"))
+                .verify(Duration.ofSeconds(1));
+        assertThat(idempotencyKeys).hasSize(2);
+    }
+
+    @Test
+    void doNotRetryByDefault() {
+        unavailableResponses.set(1);
+
+        StepVerifier.create(client.refundPaymentByPaymentId(UUID.randomUUID().toString(), REFUND_REQUEST))
+                .expectError(ApiException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(idempotencyKeys).hasSize(1);
+    }
+
+    @Test
+    void keepRetryAfterOfThrottledResponse() {
+        throttledResponses.set(1);
+
+        StepVerifier.create(client.refundPaymentByPaymentId(UUID.randomUUID().toString(), REFUND_REQUEST))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ApiException.class)
+                        .extracting("apiError.retryAfter")
+                        .isEqualTo(Duration.ofSeconds(1)))
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void resumeAfterRetryAfterWhenThrottled() {
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setPayments(10d);
+        properties.getRateLimit().setMaxWait(Duration.ofSeconds(5));
+        properties.getRetry().setMaxAttempts(2);
+        properties.getRetry().setMinBackoff(Duration.ofMillis(10));
+        client = new MayaV1Client(properties, null, null);
+        throttledResponses.set(1);
+        UUID paymentId = UUID.randomUUID();
+
+        long start = System.nanoTime();
+        RefundResponse response = client.refundPaymentByPaymentId(paymentId.toString(), REFUND_REQUEST).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getPayment()).isEqualTo(paymentId);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+        assertThat(idempotencyKeys).hasSize(2);
+    }
+
+    @Test
+    void retryAfterRetryAfterWithoutRateLimit() {
+        properties.getRetry().setMaxAttempts(2);
+        properties.getRetry().setMinBackoff(Duration.ofMillis(10));
+        client = new MayaV1Client(properties, null, null);
+        throttledResponses.set(1);
+        UUID paymentId = UUID.randomUUID();
+
+        long start = System.nanoTime();
+        RefundResponse response = client.refundPaymentByPaymentId(paymentId.toString(), REFUND_REQUEST).block();
+
+        assertThat(response).isNotNull();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+        assertThat(idempotencyKeys).hasSize(2);
+    }
+
+    @Test
+    void hedgeSlowLookup() {
+        properties.getConnection().getPool().setMaxConnections(2);
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setPercentile(90d);
+        properties.getHedge().setMinDelay(Duration.ofMillis(100));
+        properties.getHedge().setBudgetPercent(10d);
+        properties.getHedge().setWindowSize(100);
+        client = new MayaV1Client(properties, null, null);
+        for (int i = 0; i < 10; i++) {
+            client.retrievePaymentByPaymentId(UUID.randomUUID().toString()).block();
+        }
+        delayedResponses.set(1);
+        String paymentId = UUID.randomUUID().toString();
+
+        StepVerifier.create(client.retrievePaymentByPaymentId(paymentId))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(2);
+    }
+
+    @Test
+    void neverHedgeDeactivation() {
+        properties.getConnection().getPool().setMaxConnections(2);
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setPercentile(90d);
+        properties.getHedge().setMinDelay(Duration.ofMillis(100));
+        properties.getHedge().setBudgetPercent(10d);
+        properties.getHedge().setWindowSize(100);
+        client = new MayaV1Client(properties, null, null);
+        for (int i = 0; i < 10; i++) {
+            client.retrieveWalletLink(UUID.randomUUID().toString()).block();
+        }
+        delayedResponses.set(1);
+        String linkId = UUID.randomUUID().toString();
+
+        StepVerifier.create(client.deactivateWalletLink(linkId))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(linkIds).filteredOn(linkId::equals).hasSize(1);
+    }
+
+    @Test
+    void coalesceConcurrentLookups() {
+        properties.getSingleFlight().setEnabled(true);
+        client = new MayaV1Client(properties, null, null);
+        delayedResponses.set(1);
+        String paymentId = UUID.randomUUID().toString();
+
+        StepVerifier.create(Flux.merge(client.retrievePaymentByPaymentId(paymentId),
+                        client.retrievePaymentByPaymentId(paymentId),
+                        client.retrievePaymentByPaymentId(paymentId)))
+                .expectNextCount(3)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(1);
+        client.retrievePaymentByPaymentId(paymentId).block();
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(2);
+    }
+
+    @Test
+    void neverCoalesceOrCacheDeactivation() {
+        properties.getSingleFlight().setEnabled(true);
+        properties.getCache().setEnabled(true);
+        properties.getCache().setMaximumSize(100L);
+        properties.getCache().setTerminalTtl(Duration.ofHours(1));
+        properties.getCache().setPendingTtl(Duration.ofHours(1));
+        client = new MayaV1Client(properties, null, null);
+        delayedResponses.set(1);
+        String linkId = UUID.randomUUID().toString();
+
+        StepVerifier.create(Flux.merge(client.deactivateWalletLink(linkId), client.deactivateWalletLink(linkId)))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        client.deactivateWalletLink(linkId).block();
+
+        assertThat(linkIds).filteredOn(linkId::equals).hasSize(3);
+    }
+
+    @Test
+    void serveCachedPaymentUntilRefunded() {
+        properties.getCache().setEnabled(true);
+        properties.getCache().setMaximumSize(100L);
+        properties.getCache().setTerminalTtl(Duration.ofHours(1));
+        properties.getCache().setPendingTtl(Duration.ofMinutes(1));
+        client = new MayaV1Client(properties, null, null);
+        String paymentId = UUID.randomUUID().toString();
+
+        client.retrievePaymentByPaymentId(paymentId).block();
+        client.retrievePaymentByPaymentId(paymentId).block();
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(1);
+
+        client.refundPaymentByPaymentId(paymentId, REFUND_REQUEST).block();
+        client.retrievePaymentByPaymentId(paymentId).block();
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(2);
+    }
+
+    @Test
+    void invalidateCachedPaymentByRequestedPaymentId() {
+        properties.getCache().setEnabled(true);
+        properties.getCache().setMaximumSize(100L);
+        properties.getCache().setPendingTtl(Duration.ofMinutes(1));
+        client = new MayaV1Client(properties, null, null);
+        String paymentId = UUID.randomUUID().toString().toUpperCase(Locale.ROOT);
+
+        client.retrievePaymentByPaymentId(paymentId).block();
+        client.refundPaymentByPaymentId(paymentId, REFUND_REQUEST).block();
+        client.retrievePaymentByPaymentId(paymentId).block();
+
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(2);
+    }
+
+    @Test
+    void revalidateExpiredPayment() throws InterruptedException {
+        properties.getCache().setEnabled(true);
+        properties.getCache().setMaximumSize(100L);
+        properties.getCache().setTerminalTtl(Duration.ofHours(1));
+        properties.getCache().setPendingTtl(Duration.ofMillis(1));
+        client = new MayaV1Client(properties, null, null);
+        String paymentId = UUID.randomUUID().toString();
+
+        PaymentResponse first = client.retrievePaymentByPaymentId(paymentId).block();
+        Thread.sleep(10);
+        PaymentResponse second = client.retrievePaymentByPaymentId(paymentId).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(paymentIds).filteredOn(paymentId::equals).hasSize(2);
+        assertThat(notModifiedResponses).hasValue(1);
+    }
+
+    @Test
+    void revalidateExpiredTerminalPayment() throws InterruptedException {
+        properties.getCache().setEnabled(true);
+        properties.getCache().setMaximumSize(100L);
+        properties.getCache().setTerminalTtl(Duration.ofMillis(1));
+        client = new MayaV1Client(properties, null, null);
+
+        PaymentResponse first = client.retrievePaymentByPaymentId(SETTLED_PAYMENT_ID).block();
+        Thread.sleep(10);
+        PaymentResponse second = client.retrievePaymentByPaymentId(SETTLED_PAYMENT_ID).block();
+
+        assertThat(first).returns(PaymentStatus.PAYMENT_SUCCESS, PaymentResponse::getStatus);
+        assertThat(second).isSameAs(first);
+        assertThat(paymentIds).filteredOn(SETTLED_PAYMENT_ID::equals).hasSize(2);
+        assertThat(notModifiedResponses).hasValue(1);
+    }
+
+    @Test
+    void streamArrayLargerThanMemoryLimit() {
+        properties.getCodec().setMaxInMemorySize(DataSize.ofKilobytes(1));
+        client = new MayaV1Client(properties, null, null);
+
+        StepVerifier.create(client.retrieveRefunds(UUID.randomUUID().toString()))
+                .expectNextCount(REFUND_COUNT)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamArrayWithBackpressure() {
+        StepVerifier.create(client.retrieveRefunds(UUID.randomUUID().toString()), 1)
+                .assertNext(refund -> assertThat(refund.getId()).isEqualTo(new UUID(0, 0)))
+                .then(() -> assertThat(streamedRefunds).as("bounded buffering").hasValueLessThan(REFUND_COUNT))
+                .thenRequest(1)
+                .assertNext(refund -> assertThat(refund.getId()).isEqualTo(new UUID(0, 1)))
+                .thenCancel()
+                .verify();
+
+        awaitRefundStreamCancelled();
+        assertThat(streamedRefunds).hasValueLessThan(REFUND_COUNT);
+    }
+
+    @Test
+    void releaseConnectionWhenCancelledEarly() {
+        StepVerifier.create(client.retrieveRefunds(UUID.randomUUID().toString()).take(1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        awaitRefundStreamCancelled();
+
+        // the pool of one connection is available again
+        StepVerifier.create(client.retrievePaymentByPaymentId(UUID.randomUUID().toString()))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void decompressResponses() {
+        properties.getCompression().setResponseEnabled(true);
+        client = new MayaV1Client(properties, null, null);
+
+        StepVerifier.create(client.retrieveRefunds(UUID.randomUUID().toString()))
+                .expectNextCount(REFUND_COUNT)
+                .verifyComplete();
+
+        CompressionStatistics statistics = client.getCompressionStatistics();
+        assertThat(statistics.getCompressedResponseBytes()).isPositive();
+        assertThat(statistics.getResponseBytes()).isGreaterThan(statistics.getCompressedResponseBytes() * 5);
+        assertThat(statistics.getResponseBytesSaved())
+                .isEqualTo(statistics.getResponseBytes() - statistics.getCompressedResponseBytes());
+    }
+
+    @Test
+    void doNotAcceptCompressedResponsesByDefault() {
+        StepVerifier.create(client.retrieveRefunds(UUID.randomUUID().toString()))
+                .expectNextCount(REFUND_COUNT)
+                .verifyComplete();
+
+        assertThat(client.getCompressionStatistics().getResponseBytes()).isZero();
+    }
+
+    @Test
+    void warmUpWithoutConnecting() {
+        StepVerifier.create(client.warmUp())
+                .verifyComplete();
+
+        assertThat(connections).hasValue(0);
+    }
+
+    @Test
+    void warmUpPooledConnections() {
+        properties.getConnection().getPool().setMaxConnections(3);
+        properties.getWarmUp().setConnections(3);
+        properties.getKey().setSecret("sk-warm-up");
+        client = new MayaV1Client(properties, null, null);
+
+        StepVerifier.create(client.warmUp())
+                .verifyComplete();
+
+        assertThat(connections).hasValue(3);
+        assertThat(webhookAuthorizations).hasSize(3)
+                .containsOnly(AuthorizationHelper.getAuthorization("sk-warm-up"));
+
+        StepVerifier.create(Flux.range(0, 3)
+                        .flatMap(i -> client.retrievePaymentByPaymentId(UUID.randomUUID().toString())))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertThat(connections).hasValue(3);
+    }
+
+    @Test
+    void timeoutWarmUp() {
+        delayedResponses.set(1);
+        properties.getWarmUp().setConnections(1);
+        properties.getWarmUp().setTimeout(Duration.ofMillis(200));
+        client = new MayaV1Client(properties, null, null);
+
+        StepVerifier.create(client.warmUp())
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void openCircuitBreakerOfFailingFamily() {
+        properties.getCircuitBreaker().setEnabled(true);
+        properties.getCircuitBreaker().setFailureRateThreshold(50f);
+        properties.getCircuitBreaker().setSlowCallRateThreshold(100f);
+        properties.getCircuitBreaker().setSlowCallDurationThreshold(Duration.ofSeconds(10));
+        properties.getCircuitBreaker().setSlidingWindowSize(2);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        properties.getCircuitBreaker().setWaitDurationInOpenState(Duration.ofMinutes(1));
+        properties.getCircuitBreaker().setPermittedNumberOfCallsInHalfOpenState(1);
+        client = new MayaV1Client(properties, null, null);
+        unavailableResponses.set(2);
+        String paymentId = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(client.refundPaymentByPaymentId(paymentId, REFUND_REQUEST))
+                    .expectError(ApiException.class)
+                    .verify(Duration.ofSeconds(1));
+        }
+        StepVerifier.create(client.refundPaymentByPaymentId(paymentId, REFUND_REQUEST))
+                .expectError(ApiRejectedException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(idempotencyKeys).hasSize(2);
+        assertThat(client.getCircuitBreaker(EndpointFamily.PAYMENTS))
+                .map(CircuitBreaker::getState)
+                .contains(CircuitBreaker.State.OPEN);
+        assertThat(client.getCircuitBreaker(EndpointFamily.CHECKOUT))
+                .map(CircuitBreaker::getState)
+                .contains(CircuitBreaker.State.CLOSED);
+    }
+
     @Test
     void createCheckoutPayment() {
     }
@@ -105,4 +732,13 @@ class MayaV1ClientTest {
     @Test
     void removeCustomizations() {
     }
-}
\ No newline at end of file
+
+    private void awaitRefundStreamCancelled() {
+        Boolean cancelled = Mono.fromSupplier(refundStreamCancelled::get)
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(cancelled).isTrue();
+    }
+}
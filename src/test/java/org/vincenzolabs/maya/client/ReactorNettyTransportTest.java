@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Nested;
+
+import java.time.Duration;
+
+/**
+ * The test case for {@link ReactorNettyTransport}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class ReactorNettyTransportTest extends MayaTransportContractTest {
+
+    @Override
+    MayaTransport createTransport() {
+        return ReactorNettyTransport.builder()
+                .maxConnections(1)
+                .build();
+    }
+
+    /**
+     * The contract of the {@link ReactorNettyTransport} resolving with the DNS cache.
+     */
+    @Nested
+    class WithDnsCache extends MayaTransportContractTest {
+
+        @Override
+        MayaTransport createTransport() {
+            return ReactorNettyTransport.builder()
+                    .maxConnections(1)
+                    .dnsCache(true)
+                    .dnsMinTtl(Duration.ZERO)
+                    .dnsMaxTtl(Duration.ofMinutes(5))
+                    .dnsNegativeTtl(Duration.ZERO)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import io.netty.handler.ssl.ReferenceCountedOpenSslEngine;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.internal.tcnative.SSL;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.vincenzolabs.maya.config.MayaProperties;
+import org.vincenzolabs.maya.enumeration.TlsProvider;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.security.cert.CertificateException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for the TLS engines and session resumption of {@link ReactorNettyTransport}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class ReactorNettyTransportTlsTest {
+
+    private static SelfSignedCertificate certificate;
+
+    private final AtomicInteger handshakes = new AtomicInteger();
+
+    private final AtomicInteger fullHandshakes = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private MayaTransport transport;
+
+    private MayaV1Client client;
+
+    @BeforeAll
+    static void setUpCertificate() throws CertificateException {
+        certificate = new SelfSignedCertificate("localhost");
+    }
+
+    @AfterAll
+    static void tearDownCertificate() {
+        certificate.delete();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.destroy();
+        }
+        if (transport != null) {
+            transport.dispose();
+        }
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TlsProvider.class, names = {"JDK", "OPENSSL"})
+    void resumeSessionOfNewConnection(TlsProvider tlsProvider) {
+        server = HttpServer.create()
+                .port(0)
+                // OpenSSL tells whether a handshake resumed a session, unlike the JDK
+                .secure(spec -> spec.sslContext(Http11SslContextSpec.forServer(certificate.certificate(),
+                                certificate.privateKey())
+                        .configure(builder -> builder.sslProvider(SslProvider.OPENSSL))))
+                .doOnConnection(connection -> {
+                    SslHandler sslHandler = connection.channel().pipeline().get(SslHandler.class);
+                    sslHandler.handshakeFuture().addListener(future -> {
+                        if (future.isSuccess()) {
+                            handshakes.incrementAndGet();
+                            if (!SSL.isSessionReused(((ReferenceCountedOpenSslEngine) sslHandler.engine())
+                                    .sslPointer())) {
+                                fullHandshakes.incrementAndGet();
+                            }
+                        }
+                    });
+                })
+                .route(routes -> routes
+                        .get("/payments/v1/payments/{paymentId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                // closes the connection, so that each request does a handshake
+                                .header("Connection", "close")
+                                .sendString(Mono.just("{\"id\":\"" + request.param("paymentId")
+                                        + "\",\"status\":\"PAYMENT_SUCCESS\"}"))))
+                .bindNow();
+
+        transport = ReactorNettyTransport.builder()
+                .tlsProvider(tlsProvider)
+                .tlsSessionCacheSize(16)
+                .sslContextCustomizer(builder -> builder.trustManager(certificate.certificate()))
+                .build();
+        MayaProperties properties = new MayaProperties();
+        properties.getPayment().getGateway().setUrl("https://localhost:" + server.port());
+        properties.getKey().setSecret("sk-tls");
+        client = new MayaV1Client(properties, transport, null);
+
+        // OpenSSL uses a TLS 1.3 session ticket only once, so only the connection after a full handshake resumes
+        for (int i = 0; i < 2; i++) {
+            UUID paymentId = UUID.randomUUID();
+            StepVerifier.create(client.retrievePaymentByPaymentId(paymentId.toString()))
+                    .assertNext(response -> assertThat(response.getId()).isEqualTo(paymentId))
+                    .verifyComplete();
+        }
+
+        assertThat(handshakes).hasValue(2);
+        assertThat(fullHandshakes).hasValue(1);
+    }
+
+    @Test
+    void selectOpenSslIfAvailable() {
+        assertThat(ReactorNettyTransport.builder().tlsProvider(TlsProvider.AUTO).build().getSslProvider())
+                .isEqualTo(SslProvider.OPENSSL);
+        assertThat(ReactorNettyTransport.builder().tlsProvider(TlsProvider.OPENSSL).build().getSslProvider())
+                .isEqualTo(SslProvider.OPENSSL);
+        assertThat(ReactorNettyTransport.builder().tlsProvider(TlsProvider.JDK).build().getSslProvider())
+                .isEqualTo(SslProvider.JDK);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link RequestCompressionFilter}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class RequestCompressionFilterTest {
+
+    private final List<String> contentEncodings = new CopyOnWriteArrayList<>();
+
+    private final CompressionStatistics statistics = new CompressionStatistics();
+
+    private DisposableServer server;
+
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        // echoes the decompressed request body
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/echo", (request, response) -> {
+                            String contentEncoding = request.requestHeaders().get("Content-Encoding");
+                            contentEncodings.add(String.valueOf(contentEncoding));
+                            return response.header("Content-Type", "application/json")
+                                    .sendByteArray(request.receive()
+                                            .aggregate()
+                                            .asByteArray()
+                                            .map(body -> "gzip".equals(contentEncoding) ? gunzip(body) : body));
+                        }))
+                .bindNow();
+
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .filter(new RequestCompressionFilter(1024, statistics))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void compressLargeBody() {
+        String reason = "Item out of stock. ".repeat(100);
+
+        StepVerifier.create(echo(reason))
+                .assertNext(body -> assertThat(body).containsEntry("reason", reason))
+                .verifyComplete();
+
+        assertThat(contentEncodings).containsExactly("gzip");
+        assertThat(statistics.getRequestBytes()).isGreaterThan(reason.length());
+        assertThat(statistics.getCompressedRequestBytes()).isPositive()
+                .isLessThan(statistics.getRequestBytes() / 10);
+    }
+
+    @Test
+    void sendSmallBodyAsIs() {
+        StepVerifier.create(echo("Item out of stock"))
+                .assertNext(body -> assertThat(body).containsEntry("reason", "Item out of stock"))
+                .verifyComplete();
+
+        assertThat(contentEncodings).containsExactly("null");
+        assertThat(statistics.getRequestBytes()).isZero();
+        assertThat(statistics.getRequestBytesSaved()).isZero();
+    }
+
+    private Mono<Map<String, Object>> echo(String reason) {
+        return webClient.post()
+                .uri("/echo")
+                .bodyValue(Map.of("reason", reason))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<>() {
+                });
+    }
+
+    private static byte[] gunzip(byte[] body) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
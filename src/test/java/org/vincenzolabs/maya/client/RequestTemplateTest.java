@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The test case for {@link RequestTemplate}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class RequestTemplateTest {
+
+    private static final String BASE_URL = "https://pg-sandbox.paymaya.com";
+
+    @Test
+    void expand() {
+        RequestTemplate template = RequestTemplate.lookup("retrieveRefund", EndpointFamily.PAYMENTS,
+                "/payments/v1/payments/{paymentId}/refunds/{refundId}", true);
+
+        URI uri = template.expand(BASE_URL, "a1b2", "c3d4");
+
+        assertThat(uri).hasToString(BASE_URL + "/payments/v1/payments/a1b2/refunds/c3d4");
+        assertThat(template.getName()).isEqualTo("retrieveRefund");
+        assertThat(template.getMethod()).isEqualTo(HttpMethod.GET);
+        assertThat(template.getFamily()).isEqualTo(EndpointFamily.PAYMENTS);
+        assertThat(template.isSecretKeyRequired()).isTrue();
+        assertThat(template.isReadOnly()).isTrue();
+    }
+
+    @Test
+    void expandWithoutUriVariables() {
+        RequestTemplate template = RequestTemplate.post("create", EndpointFamily.CHECKOUT,
+                "/checkout/v1/checkouts", false);
+
+        URI uri = template.expand(BASE_URL);
+
+        assertThat(uri).hasToString(BASE_URL + "/checkout/v1/checkouts");
+        assertThat(template.isSecretKeyRequired()).isFalse();
+        assertThat(template.isReadOnly()).isFalse();
+    }
+
+    @Test
+    void expandEncodesUriVariables() {
+        RequestTemplate template = RequestTemplate.get("retrieve", EndpointFamily.PAYMENTS,
+                "/payments/v1/payment-rrns/{requestReferenceNumber}", true);
+
+        URI uri = template.expand(BASE_URL, "RRN 1/2");
+
+        assertThat(uri.getRawPath()).isEqualTo("/payments/v1/payment-rrns/RRN%201%2F2");
+    }
+
+    @Test
+    void expandWithWrongNumberOfUriVariables() {
+        RequestTemplate template = RequestTemplate.get("retrieve", EndpointFamily.PAYMENTS,
+                "/payments/v1/payments/{paymentId}", true);
+
+        assertThatThrownBy(() -> template.expand(BASE_URL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getIsNotReadOnly() {
+        RequestTemplate template = RequestTemplate.get("deactivateWalletLink", EndpointFamily.PAY_BY,
+                "/payby/v2/paymaya/link/{linkId}", true);
+
+        assertThat(template.getMethod()).isEqualTo(HttpMethod.GET);
+        assertThat(template.isReadOnly()).isFalse();
+    }
+
+    @Test
+    void getHeaders() {
+        HttpHeaders getHeaders = RequestTemplate.get("retrieve", EndpointFamily.WEBHOOKS,
+                "/checkout/v1/webhooks", true).getHeaders();
+        HttpHeaders postHeaders = RequestTemplate.post("create", EndpointFamily.WEBHOOKS,
+                "/checkout/v1/webhooks", true).getHeaders();
+
+        assertThat(getHeaders.getAccept()).containsExactly(MediaType.APPLICATION_JSON);
+        assertThat(getHeaders.getContentType()).isNull();
+        assertThat(postHeaders.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThatThrownBy(() -> postHeaders.add(HttpHeaders.AUTHORIZATION, "Basic Og=="))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
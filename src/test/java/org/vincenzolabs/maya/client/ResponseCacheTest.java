@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.vincenzolabs.maya.dto.CheckoutGETResponse;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.dto.RefundResponse;
+import org.vincenzolabs.maya.dto.VoidResponse;
+import org.vincenzolabs.maya.dto.WebhookResponse;
+import org.vincenzolabs.maya.enumeration.PaymentStatus;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link ResponseCache}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class ResponseCacheTest {
+
+    private static final Duration TERMINAL_TTL = Duration.ofHours(1);
+
+    private static final Duration PENDING_TTL = Duration.ofSeconds(5);
+
+    private static final Duration REVALIDATION_TTL = Duration.ofHours(24);
+
+    private final ResponseCache cache = new ResponseCache(100, TERMINAL_TTL, PENDING_TTL, REVALIDATION_TTL);
+
+    @ParameterizedTest
+    @MethodSource("provideResponses")
+    void getTtlByState(Object response, Duration expected) {
+        assertThat(cache.getTtl(response)).isEqualTo(expected);
+    }
+
+    @Test
+    void doNotCacheOtherTypes() {
+        cache.put("key", WebhookResponse.builder().build());
+
+        assertThat(cache.get("key", WebhookResponse.class)).isNull();
+    }
+
+    @Test
+    void invalidate() {
+        PaymentResponse response = PaymentResponse.builder().status(PaymentStatus.PAYMENT_SUCCESS).build();
+        cache.put("key", response);
+        assertThat(cache.get("key", PaymentResponse.class)).isSameAs(response);
+        assertThat(cache.get("key", VoidResponse.class)).isNull();
+
+        cache.invalidate("key");
+
+        assertThat(cache.get("key", PaymentResponse.class)).isNull();
+    }
+
+    @Test
+    void retainExpiredEntryWithValidators() throws InterruptedException {
+        ResponseCache shortLived = new ResponseCache(100, TERMINAL_TTL, Duration.ofMillis(1), REVALIDATION_TTL);
+        PaymentResponse response = PaymentResponse.builder().status(PaymentStatus.PENDING_PAYMENT).build();
+        shortLived.put("validated", response, "\"v1\"", null);
+        shortLived.put("unvalidated", response);
+
+        Thread.sleep(10);
+
+        assertThat(shortLived.get("validated", PaymentResponse.class)).isNull();
+        assertThat(shortLived.getEntry("validated"))
+                .returns(response, ResponseCache.Entry::response)
+                .returns("\"v1\"", ResponseCache.Entry::eTag)
+                .returns(false, ResponseCache.Entry::isFresh);
+        assertThat(shortLived.getEntry("unvalidated")).isNull();
+    }
+
+    @Test
+    void retainExpiredTerminalEntryWithValidators() throws InterruptedException {
+        ResponseCache shortLived = new ResponseCache(100, Duration.ofMillis(1), PENDING_TTL, REVALIDATION_TTL);
+        PaymentResponse response = PaymentResponse.builder().status(PaymentStatus.PAYMENT_SUCCESS).build();
+        shortLived.put("validated", response, null, "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        Thread.sleep(10);
+
+        assertThat(shortLived.get("validated", PaymentResponse.class)).isNull();
+        assertThat(shortLived.getEntry("validated"))
+                .returns(response, ResponseCache.Entry::response)
+                .returns(false, ResponseCache.Entry::isFresh);
+    }
+
+    private static Stream<Arguments> provideResponses() {
+        return Stream.of(Arguments.of(PaymentResponse.builder().status(PaymentStatus.PAYMENT_SUCCESS).build(),
+                        TERMINAL_TTL),
+                Arguments.of(PaymentResponse.builder().status(PaymentStatus.REFUNDED).build(), TERMINAL_TTL),
+                Arguments.of(PaymentResponse.builder().status(PaymentStatus.PENDING_PAYMENT).build(), PENDING_TTL),
+                Arguments.of(PaymentResponse.builder().status(PaymentStatus.AUTHENTICATING).build(), PENDING_TTL),
+                Arguments.of(PaymentResponse.builder().build(), PENDING_TTL),
+                Arguments.of(CheckoutGETResponse.builder().paymentStatus(PaymentStatus.PAYMENT_EXPIRED).build(),
+                        TERMINAL_TTL),
+                Arguments.of(VoidResponse.builder().status("SUCCESS").build(), TERMINAL_TTL),
+                Arguments.of(RefundResponse.builder().status("PENDING").build(), PENDING_TTL),
+                Arguments.of(WebhookResponse.builder().build(), Duration.ZERO));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiTimeoutException;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link RetryPolicy}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class RetryPolicyTest {
+
+    @ParameterizedTest
+    @MethodSource("provideErrors")
+    void isTransient(Throwable throwable, boolean expected) {
+        assertThat(RetryPolicy.isTransient(throwable)).isEqualTo(expected);
+    }
+
+    @Test
+    void backoffExponentially() {
+        RetryPolicy policy = new RetryPolicy(5, Duration.ofMillis(100), Duration.ofSeconds(1), 0);
+        ApiException unavailable = new ApiException(HttpStatus.SERVICE_UNAVAILABLE, null, null, null);
+
+        assertThat(policy.getBackoff(0, unavailable)).isEqualTo(Duration.ofMillis(100));
+        assertThat(policy.getBackoff(2, unavailable)).isEqualTo(Duration.ofMillis(400));
+        assertThat(policy.getBackoff(10, unavailable)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(policy.getBackoff(0, new ApiException(HttpStatus.BAD_REQUEST, "2553", null, null))).isNull();
+    }
+
+    @Test
+    void backoffUntilRetryAfter() {
+        RetryPolicy policy = new RetryPolicy(5, Duration.ofMillis(100), Duration.ofSeconds(2), 0.5);
+
+        assertThat(policy.getBackoff(0, new ApiException(HttpStatus.TOO_MANY_REQUESTS, null, null,
+                Duration.ofSeconds(1), null))).isEqualTo(Duration.ofSeconds(1));
+        assertThat(policy.getBackoff(0, new ApiException(HttpStatus.TOO_MANY_REQUESTS, null, null,
+                Duration.ofSeconds(5), null))).isNull();
+        assertThat(policy.getBackoff(0, new ApiException(HttpStatus.TOO_MANY_REQUESTS, null, null, null)))
+                .isBetween(Duration.ofMillis(100), Duration.ofMillis(150));
+    }
+
+    private static Stream<Arguments> provideErrors() {
+        return Stream.of(Arguments.of(new ApiTimeoutException(Duration.ofSeconds(1), "Timed out", null), true),
+                Arguments.of(new WebClientRequestException(new ConnectException("Connection refused"),
+                        HttpMethod.GET, URI.create("https://pg-sandbox.paymaya.com"), new HttpHeaders()), true),
+                Arguments.of(new ApiException(HttpStatus.TOO_MANY_REQUESTS, null, null, null), true),
+                Arguments.of(new ApiException(HttpStatus.BAD_GATEWAY, null, null, null), true),
+                Arguments.of(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, null, null, null), true),
+                Arguments.of(new ApiException(HttpStatus.GATEWAY_TIMEOUT, null, null, null), true),
+                Arguments.of(new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "PY0099", null, null), false),
+                Arguments.of(new ApiException(HttpStatus.BAD_REQUEST, "2553", null, null), false),
+                Arguments.of(new IllegalStateException(), false));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.vincenzolabs.maya.exception.ApiException;
+import org.vincenzolabs.maya.exception.ApiRejectedException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link TokenBucketRateLimiter}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void delayWhenBucketIsEmpty() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 10, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+        assertThat(Duration.ofNanos(limiter.reserve()))
+                .isGreaterThan(Duration.ofMillis(50))
+                .isLessThanOrEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void rejectWhenWaitExceedsMaxWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, Duration.ofMillis(100));
+
+        StepVerifier.create(limiter.limit(Mono.just("first")))
+                .expectNext("first")
+                .verifyComplete();
+        StepVerifier.create(limiter.limit(Mono.just("second")))
+                .expectError(ApiRejectedException.class)
+                .verify();
+    }
+
+    @Test
+    void timeoutWhenTokenIsDueAfterDeadline() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, Duration.ofSeconds(5));
+
+        StepVerifier.create(limiter.limit(Mono.just("first")))
+                .expectNext("first")
+                .verifyComplete();
+        StepVerifier.create(limiter.limit(Mono.just("second"), Deadline.after(Duration.ofMillis(100))))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        // the token was not taken by the call that timed out
+        assertThat(Duration.ofNanos(limiter.reserve())).isLessThanOrEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void pauseWhenThrottled() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 100, Duration.ofSeconds(5));
+
+        StepVerifier.create(limiter.limit(Mono.error(new ApiException(HttpStatus.TOO_MANY_REQUESTS, null, null,
+                        Duration.ofSeconds(2), null))))
+                .expectError(ApiException.class)
+                .verify();
+
+        assertThat(Duration.ofNanos(limiter.reserve()))
+                .isGreaterThan(Duration.ofMillis(1900))
+                .isLessThanOrEqualTo(Duration.ofMillis(2100));
+    }
+}
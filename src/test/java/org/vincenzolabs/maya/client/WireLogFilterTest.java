@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link WireLogFilter}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class WireLogFilterTest {
+
+    private static final String PAYMENT = "{\"id\":\"a1b2\",\"status\":\"PAYMENT_SUCCESS\",\"fundSource\":{\"type\":"
+            + "\"card\",\"details\":{\"masked\":\"512345******2346\",\"last4\":\"2346\"}},\"receipt\":{\"approval_code\":"
+            + "\"00001234\"},\"paymentDetails\":{\"responses\":{\"efs\":{\"maskedResponseMetadataCardNumber\":"
+            + "\"512345******2346\"}}}}";
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(WireLogFilter.class);
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private DisposableServer server;
+
+    private WireLogFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/payments", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .send(request.receive().retain())))
+                .bindNow();
+
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.DEBUG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        if (filter != null) {
+            filter.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Test
+    void logRedactedExchangeOffTheEventLoop() {
+        filter = new WireLogFilter(1.0, 4096, 16);
+
+        StepVerifier.create(post(PAYMENT))
+                .expectNext(PAYMENT)
+                .verifyComplete();
+
+        ILoggingEvent event = awaitEvents(1).get(0);
+        assertThat(event.getThreadName()).startsWith("maya-wire-log");
+        assertThat(event.getFormattedMessage())
+                .startsWith("POST http://localhost:" + server.port() + "/payments -> 200 OK in ")
+                .contains("> Authorization: [REDACTED]", "< Content-Type: application/json",
+                        "\"fundSource\":{\"type\":\"card\",\"details\":\"[REDACTED]\"}",
+                        "\"maskedResponseMetadataCardNumber\":\"[REDACTED]\"", "\"approval_code\":\"00001234\"")
+                .doesNotContain("sk-wire-log", "512345******2346", "2346\"");
+    }
+
+    @Test
+    void logSampleOfExchanges() {
+        filter = new WireLogFilter(0.0, 4096, 16);
+
+        StepVerifier.create(Flux.range(0, 10).concatMap(i -> post(PAYMENT)))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void truncateBodies() {
+        filter = new WireLogFilter(1.0, 80, 16);
+
+        StepVerifier.create(post(PAYMENT))
+                .expectNext(PAYMENT)
+                .verifyComplete();
+
+        String size = " (" + PAYMENT.getBytes(StandardCharsets.UTF_8).length + " bytes)";
+        assertThat(awaitEvents(1).get(0).getFormattedMessage())
+                .contains("> {\"id\":\"a1b2\",\"status\":\"PAYMENT_SUCCESS\",\"fundSource\":{\"type\":\"card\","
+                        + "\"details\"..." + size)
+                .doesNotContain("512345******2346");
+    }
+
+    @Test
+    void redactJson() {
+        byte[] body = PAYMENT.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(WireLogFilter.redact(body, body.length))
+                .isEqualTo("{\"id\":\"a1b2\",\"status\":\"PAYMENT_SUCCESS\",\"fundSource\":{\"type\":\"card\","
+                        + "\"details\":\"[REDACTED]\"},\"receipt\":{\"approval_code\":\"00001234\"},"
+                        + "\"paymentDetails\":{\"responses\":{\"efs\":{\"maskedResponseMetadataCardNumber\":"
+                        + "\"[REDACTED]\"}}}}");
+    }
+
+    @Test
+    void keepDetailsOutsideOfFundSource() {
+        byte[] body = "{\"details\":{\"reason\":\"expired\"}}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(WireLogFilter.redact(body, body.length)).isEqualTo("{\"details\":{\"reason\":\"expired\"}}");
+    }
+
+    @Test
+    void replaceBodyThatIsNotJson() {
+        byte[] body = "<html>Bad Gateway</html>".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(WireLogFilter.redact(body, body.length)).isEqualTo("[24 bytes]");
+    }
+
+    private Mono<String> post(String body) {
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .filter(filter)
+                .build()
+                .post()
+                .uri("/payments")
+                .header(HttpHeaders.AUTHORIZATION, "Basic sk-wire-log")
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+    private List<ILoggingEvent> awaitEvents(int count) {
+        return Mono.fromSupplier(() -> List.copyOf(appender.list))
+                .filter(events -> events.size() >= count)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+                .block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vincenzolabs.maya.client.MayaClientRegistry;
+import org.vincenzolabs.maya.client.MayaMetrics;
+import org.vincenzolabs.maya.client.MayaTransport;
+import org.vincenzolabs.maya.client.MayaV1BlockingClient;
+import org.vincenzolabs.maya.client.MayaV1Client;
+import org.vincenzolabs.maya.enumeration.EndpointFamily;
+import org.vincenzolabs.maya.enumeration.HttpProtocolVersion;
+import org.vincenzolabs.maya.enumeration.HttpTransport;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link MayaAutoConfiguration}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class MayaAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MayaAutoConfiguration.class));
+
+    @Test
+    void createClientsWithoutTransport() {
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(MayaV1Client.class)
+                    .hasSingleBean(MayaV1BlockingClient.class)
+                    .hasSingleBean(MayaClientRegistry.class)
+                    .doesNotHaveBean("mayaWarmUpListener");
+
+            MayaV1Client client = context.getBean(MayaV1Client.class);
+            assertThat(ReflectionTestUtils.getField(client, "properties"))
+                    .isSameAs(context.getBean(MayaProperties.class));
+            assertThat(ReflectionTestUtils.getField(client, "transport")).isNull();
+            assertThat(ReflectionTestUtils.getField(client, "webClient")).isNull();
+        });
+    }
+
+    @Test
+    void bindProperties() {
+        runner.withPropertyValues("maya.key.public=pk-test",
+                        "maya.key.secret=sk-test",
+                        "maya.payment.gateway.url=https://pg.maya.ph",
+                        "maya.connection.pool.max-connections=10",
+                        "maya.timeout.response=5s",
+                        "maya.timeout.payments=2s",
+                        "maya.rate-limit.permits-per-second=20",
+                        "maya.rate-limit.checkout=5",
+                        "maya.cache.enabled=true",
+                        "maya.http.transport=JDK",
+                        "maya.http.protocol=H2")
+                .run(context -> {
+                    MayaProperties properties = context.getBean(MayaProperties.class);
+                    assertThat(properties.getKey().getPublic()).isEqualTo("pk-test");
+                    assertThat(properties.getKey().getSecret()).isEqualTo("sk-test");
+                    assertThat(properties.getPayment().getGateway().getUrl()).isEqualTo("https://pg.maya.ph");
+                    assertThat(properties.getConnection().getPool().getMaxConnections()).isEqualTo(10);
+                    assertThat(properties.getTimeout().getTimeout(EndpointFamily.CHECKOUT))
+                            .isEqualTo(Duration.ofSeconds(5));
+                    assertThat(properties.getTimeout().getTimeout(EndpointFamily.PAYMENTS))
+                            .isEqualTo(Duration.ofSeconds(2));
+                    assertThat(properties.getRateLimit().getPermitsPerSecond(EndpointFamily.CHECKOUT)).isEqualTo(5.0);
+                    assertThat(properties.getRateLimit().getPermitsPerSecond(EndpointFamily.PAYMENTS))
+                            .isEqualTo(20.0);
+                    assertThat(properties.getCache().isEnabled()).isTrue();
+                    assertThat(properties.getHttp().getTransport()).isEqualTo(HttpTransport.JDK);
+                    assertThat(properties.getHttp().getProtocol()).isEqualTo(HttpProtocolVersion.H2);
+
+                    MayaV1Client client = context.getBean(MayaV1Client.class);
+                    assertThat(ReflectionTestUtils.getField(client, "properties")).isSameAs(properties);
+                });
+    }
+
+    @Test
+    void backOffFromApplicationBeans() {
+        MayaV1Client client = new MayaV1Client();
+
+        runner.withBean(MayaV1Client.class, () -> client)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(MayaV1Client.class);
+                    assertThat(context.getBean(MayaV1Client.class)).isSameAs(client);
+                    assertThat(context.getBean(MayaClientRegistry.class).getMerchantIds()).isEmpty();
+                });
+    }
+
+    @Test
+    void enableWarmUp() {
+        runner.withPropertyValues("maya.warm-up.enabled=true")
+                .run(context -> assertThat(context).hasBean("mayaWarmUpListener"));
+    }
+
+    @Test
+    void recordMetricsInMeterRegistry() {
+        runner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(MayaMetrics.class);
+                    assertThat(ReflectionTestUtils.getField(context.getBean(MayaV1Client.class), "metrics"))
+                            .isSameAs(context.getBean(MayaMetrics.class));
+                });
+    }
+
+    @Test
+    void recordNoMetricsWithoutMeterRegistry() {
+        runner.run(context -> {
+            assertThat(context).doesNotHaveBean(MayaMetrics.class);
+            assertThat(ReflectionTestUtils.getField(context.getBean(MayaV1Client.class), "metrics")).isNull();
+        });
+    }
+
+    @Test
+    void disableMetrics() {
+        runner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues("maya.metrics.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(MayaMetrics.class));
+    }
+
+    @Test
+    void warmUpApplicationTransport() {
+        StubTransport transport = new StubTransport();
+
+        runner.withBean(MayaTransport.class, () -> transport)
+                .run(context -> {
+                    MayaV1Client client = context.getBean(MayaV1Client.class);
+                    assertThat(transport.connectors).hasValue(0);
+
+                    StepVerifier.create(client.warmUp())
+                            .verifyComplete();
+
+                    assertThat(transport.connectors).hasValue(1);
+                    assertThat(transport.warmUps).hasValue(1);
+                });
+
+        assertThat(transport.disposals).as("the application owns its transport").hasValue(0);
+    }
+
+    /**
+     * The {@link MayaTransport} counting its calls.
+     */
+    private static class StubTransport implements MayaTransport {
+
+        private final AtomicInteger connectors = new AtomicInteger();
+
+        private final AtomicInteger warmUps = new AtomicInteger();
+
+        private final AtomicInteger disposals = new AtomicInteger();
+
+        @Override
+        public ClientHttpConnector createConnector(String paymentGatewayUrl) {
+            connectors.incrementAndGet();
+
+            return new JdkClientHttpConnector();
+        }
+
+        @Override
+        public Mono<Void> warmUp() {
+            return Mono.fromRunnable(warmUps::incrementAndGet);
+        }
+
+        @Override
+        public boolean isTimeout(Throwable cause) {
+            return false;
+        }
+
+        @Override
+        public boolean isConnectTimeout(Throwable cause) {
+            return false;
+        }
+
+        @Override
+        public void dispose() {
+            disposals.incrementAndGet();
+        }
+    }
+}
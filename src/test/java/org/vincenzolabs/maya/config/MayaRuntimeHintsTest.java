@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.vincenzolabs.maya.dto.Amount;
+import org.vincenzolabs.maya.dto.Customer;
+import org.vincenzolabs.maya.dto.PaymentDetails;
+import org.vincenzolabs.maya.dto.PaymentResponse;
+import org.vincenzolabs.maya.enumeration.Sex;
+import org.vincenzolabs.maya.enumeration.WebhookName;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link MayaRuntimeHints}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class MayaRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new MayaRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerInAotFactories() {
+        List<RuntimeHintsRegistrar> registrars = SpringFactoriesLoader
+                .forResourceLocation("META-INF/spring/aot.factories")
+                .load(RuntimeHintsRegistrar.class);
+
+        assertThat(registrars).hasAtLeastOneElementOfType(MayaRuntimeHints.class);
+    }
+
+    @Test
+    void scanNestedTypes() {
+        assertThat(MayaRuntimeHints.getBoundTypes(getClass().getClassLoader()))
+                .contains(PaymentDetails.Responses.Data.EFS.class, Customer.ShippingAddress.class,
+                        Amount.Details.class, PaymentResponse.class, WebhookName.class, Sex.class);
+    }
+
+    @Test
+    void registerJsonCreators() {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(WebhookName.class, "fromValue")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(WebhookName.class, "toString")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Sex.class, "forName")).accepts(hints);
+    }
+
+    @Test
+    void registerEveryJacksonProperty() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        for (Class<?> type : MayaRuntimeHints.getBoundTypes(getClass().getClassLoader())) {
+            if (type.isEnum()) {
+                continue;
+            }
+            assertThat(RuntimeHintsPredicates.reflection().onType(type))
+                    .as(type.getName())
+                    .accepts(hints);
+
+            JavaType javaType = objectMapper.constructType(type);
+            List<BeanPropertyDefinition> properties = objectMapper.getDeserializationConfig()
+                    .introspect(javaType)
+                    .findProperties();
+            for (BeanPropertyDefinition property : properties) {
+                assertAccessible(type, property.getGetter());
+                assertAccessible(type, property.getSetter());
+            }
+        }
+    }
+
+    private void assertAccessible(Class<?> type, AnnotatedMember member) {
+        if (member instanceof AnnotatedMethod method) {
+            assertThat(RuntimeHintsPredicates.reflection().onMethod(method.getAnnotated()))
+                    .as(type.getName() + "." + method.getName())
+                    .accepts(hints);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021 VincenzoLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.vincenzolabs.maya.helper;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test case for {@link RetryAfterHelper}.
+ *
+ * @author <a href="mailto:rvbabilonia@gmail.com">Rey Vincent Babilonia</a>
+ */
+class RetryAfterHelperTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2023-03-21T08:00:00Z"), ZoneOffset.UTC);
+
+    @ParameterizedTest
+    @MethodSource("provideValues")
+    void parse(String input, Duration expected) {
+        Duration retryAfter = RetryAfterHelper.parse(input, CLOCK);
+
+        assertThat(retryAfter).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideValues() {
+        return Stream.of(Arguments.of(null, null),
+                Arguments.of("", null),
+                Arguments.of("120", Duration.ofSeconds(120)),
+                Arguments.of(" 5 ", Duration.ofSeconds(5)),
+                Arguments.of("Tue, 21 Mar 2023 08:00:30 GMT", Duration.ofSeconds(30)),
+                Arguments.of("Tue, 21 Mar 2023 07:59:00 GMT", Duration.ZERO),
+                Arguments.of("soon", null));
+    }
+}